@@ -1,5 +1,6 @@
 package com.near.api.config;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
@@ -14,14 +15,27 @@ import java.util.concurrent.Executor;
 /**
  * Configuración para procesamiento asíncrono de notificaciones.
  * Permite que el envío de notificaciones no bloquee las operaciones principales.
+ *
+ * Hay dos clases de prioridad con pools separados, para que un broadcast grande
+ * (NEARBY_REQUEST) no retrase los pushes transaccionales (request aceptada,
+ * contenido entregado, pago, mensajes de chat).
  */
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 @Slf4j
 public class AsyncConfig implements AsyncConfigurer {
 
-    @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
+    // Pushes transaccionales: un usuario espera esta notificación
+    public static final String TRANSACTIONAL_EXECUTOR = "notificationExecutor";
+
+    // Pushes de descubrimiento: broadcast a usuarios cercanos, tolerante a demoras y descartes
+    public static final String DISCOVERY_EXECUTOR = "discoveryNotificationExecutor";
+
+    private final ExecutorMetricsRegistry executorMetricsRegistry;
+
+    @Bean(name = TRANSACTIONAL_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         
         // Configuración del pool de hilos
@@ -30,10 +44,12 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.setQueueCapacity(100);        // Cola de espera
         executor.setThreadNamePrefix("notif-"); // Prefijo para identificar en logs
         executor.setKeepAliveSeconds(60);      // Tiempo de vida de hilos extra
+        executor.setTaskDecorator(executorMetricsRegistry.register(TRANSACTIONAL_EXECUTOR, executor));
         
         // Política de rechazo: ejecutar en el hilo del llamador si el pool está lleno
         executor.setRejectedExecutionHandler((r, e) -> {
             log.warn("Pool de notificaciones lleno. Ejecutando en hilo principal.");
+            executorMetricsRegistry.recordRejected(TRANSACTIONAL_EXECUTOR);
             if (!e.isShutdown()) {
                 r.run();
             }
@@ -47,6 +63,30 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    @Bean(name = DISCOVERY_EXECUTOR)
+    public ThreadPoolTaskExecutor discoveryNotificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("notif-discovery-");
+        executor.setKeepAliveSeconds(60);
+        executor.setTaskDecorator(executorMetricsRegistry.register(DISCOVERY_EXECUTOR, executor));
+
+        // Política de rechazo: descartar. Nunca bloquear al llamador (p. ej. la creación de la request)
+        executor.setRejectedExecutionHandler((r, e) -> {
+            log.warn("Pool de notificaciones de descubrimiento lleno. Notificación descartada.");
+            executorMetricsRegistry.recordRejected(DISCOVERY_EXECUTOR);
+        });
+
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return notificationExecutor();
@@ -64,12 +104,12 @@ public class AsyncConfig implements AsyncConfigurer {
         
         @Override
         public void handleUncaughtException(Throwable ex, Method method, Object... params) {
-            log.error("Error en método async '{}': {}", method.getName(), ex.getMessage());
+            log.error("Error en método async '{}': {}", method.getName(), ex.getMessage(), ex);
             log.debug("Parámetros del método: {}", params);
             
+            // Los fallos transitorios de FCM ya se reintentan vía NotificationJobService.
             // Aquí podrías agregar:
             // - Envío a sistema de monitoreo (Sentry, etc.)
-            // - Registro en base de datos para retry
             // - Notificación a admins
         }
     }
@@ -0,0 +1,40 @@
+package com.near.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+/**
+ * Broker STOMP del chat.
+ * mode = simple -> broker en memoria (una sola instancia)
+ * mode = relay  -> broker externo (ActiveMQ, Artemis...) compartido por todas las instancias
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat.broker")
+public class ChatBrokerProperties {
+
+    private Mode mode = Mode.SIMPLE;
+    private Relay relay = new Relay();
+
+    public enum Mode {
+        SIMPLE,
+        RELAY
+    }
+
+    @Data
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String virtualHost;
+
+        // Credenciales de las conexiones de cada cliente WebSocket
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+
+        // Credenciales de la conexión compartida del servidor (envíos desde servicios)
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+    }
+}
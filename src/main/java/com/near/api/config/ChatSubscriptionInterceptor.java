@@ -0,0 +1,138 @@
+package com.near.api.config;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.document.Conversation.ConversationStatus;
+import com.near.api.modules.chat.service.ChatSessionRegistry;
+import com.near.api.modules.chat.service.ConversationCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Autoriza el acceso a los destinos de chat (/topic/chat/{id}/... y /app/chat/{id}/...).
+ * Solo el primer frame de cada conversación en la sesión consulta la conversación;
+ * el resto se valida contra el conjunto guardado en la sesión (ChatSessionRegistry).
+ *
+ * Falla cerrado: SUBSCRIBE y SEND solo pasan hacia destinos de la lista blanca.
+ * El broker acepta patrones (/topic/**, /topic/chat/*), así que cualquier destino
+ * con comodines se rechaza antes de mirar la conversación.
+ * Los frames no autorizados se descartan.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSubscriptionInterceptor implements ChannelInterceptor {
+
+    // Eventos que publica el servidor por conversación (ChatServiceImpl, ChatWebSocketController,
+    // TypingIndicatorServiceImpl, ReadReceiptAggregator): un topic nuevo debe agregarse aquí
+    static final List<String> CHAT_TOPIC_EVENTS =
+            List.of("messages", "typing", "read", "media-unlocked", "presence", "tips-config");
+
+    private static final Pattern CHAT_TOPIC = Pattern.compile(
+            "^/topic/chat/([A-Za-z0-9_-]+)/(?:" + String.join("|", CHAT_TOPIC_EVENTS) + ")$");
+
+    // Acciones del cliente (@MessageMapping de ChatWebSocketController)
+    private static final Pattern CHAT_APP = Pattern.compile("^/app/chat/([A-Za-z0-9_-]+)/[a-z-]+$");
+
+    // Colas privadas: el UserDestinationMessageHandler las resuelve a la sesión del propio usuario
+    private static final Pattern USER_QUEUE = Pattern.compile("^/user/queue/[a-z-]+$");
+
+    private static final Pattern WILDCARDS = Pattern.compile("[*?{}]");
+
+    private final ConversationCache conversationCache;
+    private final ChatSessionRegistry chatSessionRegistry;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+
+        if (StompCommand.DISCONNECT.equals(command)) {
+            chatSessionRegistry.removeSession(accessor.getSessionId());
+            return message;
+        }
+
+        if (!StompCommand.SUBSCRIBE.equals(command) && !StompCommand.SEND.equals(command)) {
+            return message;
+        }
+
+        String destination = accessor.getDestination();
+        if (destination == null || WILDCARDS.matcher(destination).find()) {
+            log.warn("Frame {} a {} rechazado: destino con comodines", command, destination);
+            return null;
+        }
+
+        if (StompCommand.SUBSCRIBE.equals(command) && USER_QUEUE.matcher(destination).matches()) {
+            return message;
+        }
+
+        String conversationId = extractConversationId(command, destination);
+        if (conversationId == null) {
+            log.warn("Frame {} a {} rechazado: destino no permitido", command, destination);
+            return null;
+        }
+
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+
+        // Ya autorizada en esta sesión: validación en memoria
+        if (chatSessionRegistry.isAllowed(sessionAttributes, conversationId)) {
+            return message;
+        }
+
+        UUID userId = extractUserId(accessor.getUser());
+        if (userId != null && canAccess(conversationId, userId)) {
+            chatSessionRegistry.grant(accessor.getSessionId(), sessionAttributes, conversationId);
+            log.debug("Sesión {} autorizada para conversación {}", accessor.getSessionId(), conversationId);
+            return message;
+        }
+
+        log.warn("Frame {} a {} rechazado: usuario {} sin acceso", command, accessor.getDestination(), userId);
+        return null;
+    }
+
+    private boolean canAccess(String conversationId, UUID userId) {
+        return conversationCache.get(conversationId)
+                .map(conversation -> conversation.isParticipant(userId) && isActive(conversation))
+                .orElse(false);
+    }
+
+    private boolean isActive(Conversation conversation) {
+        return conversation.getStatus() == ConversationStatus.ACTIVE && !conversation.isExpired();
+    }
+
+    // SUBSCRIBE solo a topics de chat; SEND solo a /app (un SEND directo a /topic saltaría los controladores)
+    private String extractConversationId(StompCommand command, String destination) {
+        Pattern pattern = StompCommand.SUBSCRIBE.equals(command) ? CHAT_TOPIC : CHAT_APP;
+        Matcher matcher = pattern.matcher(destination);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private UUID extractUserId(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(principal.getName());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.near.api.config;
+
+import com.near.api.infrastructure.datasource.ReadReplicaRoutingDataSource;
+import com.near.api.infrastructure.datasource.RecentWriteTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource con réplicas de lectura. Reemplaza al pool único que arma Spring Boot
+ * solo cuando datasource.routing.enabled = true.
+ *
+ * El pool del primario sigue configurándose con spring.datasource / spring.datasource.hikari;
+ * cada réplica tiene su propio pool Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("near-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaPools replicaPools(DataSourceProperties properties, DataSourceRoutingProperties routingProperties) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        List<DataSourceRoutingProperties.Replica> configured = routingProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            pools.add(buildReplica(i, configured.get(i), properties));
+        }
+        return new ReplicaPools(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaPools replicaPools,
+                                 DataSourceRoutingProperties routingProperties) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primaryDataSource, new ArrayList<>(replicaPools.getPools()),
+                new RecentWriteTracker(routingProperties.getReadYourWritesMs()));
+        routing.afterPropertiesSet();
+
+        log.info("DataSource con {} réplica(s) de lectura (read-your-writes: {} ms)",
+                replicaPools.getPools().size(), routingProperties.getReadYourWritesMs());
+
+        // La conexión real se pide al ejecutar la primera sentencia, cuando ya se sabe si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource buildReplica(int index, DataSourceRoutingProperties.Replica replica,
+                                          DataSourceProperties primary) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("near-replica-" + index);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        dataSource.setDriverClassName(primary.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setMinimumIdle(replica.getMinimumIdle());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Pools de las réplicas como bean propio para que se cierren al apagar la aplicación
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ReplicaPools implements AutoCloseable {
+        private final List<HikariDataSource> pools;
+
+        @Override
+        public void close() {
+            pools.forEach(HikariDataSource::close);
+        }
+    }
+}
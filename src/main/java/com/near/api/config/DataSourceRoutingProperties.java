@@ -0,0 +1,39 @@
+package com.near.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura de PostgreSQL.
+ * enabled = false -> un único pool al primario (spring.datasource)
+ * enabled = true  -> las transacciones readOnly se reparten entre las réplicas
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Ventana en la que un usuario que confirmó una escritura sigue leyendo del primario (lag de replicación).
+    // Se comparte entre instancias con una cookie; sin ella la garantía es por instancia (ver RecentWriteTracker)
+    private long readYourWritesMs = 3000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+
+        // Si se omiten se usan las credenciales de spring.datasource
+        private String username;
+        private String password;
+
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+    }
+}
@@ -0,0 +1,146 @@
+package com.near.api.config;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de los pools de hilos de notificaciones: profundidad de cola,
+ * rechazos y latencia (espera en cola y ejecución) sobre las últimas muestras.
+ */
+@Component
+public class ExecutorMetricsRegistry {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final Map<String, ExecutorStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Registrar un pool y obtener el decorador que mide sus tareas
+     */
+    public TaskDecorator register(String name, ThreadPoolTaskExecutor executor) {
+        ExecutorStats executorStats = new ExecutorStats(executor);
+        stats.put(name, executorStats);
+        return executorStats::decorate;
+    }
+
+    /**
+     * Contabilizar una tarea rechazada (o ejecutada en el hilo del llamador)
+     */
+    public void recordRejected(String name) {
+        ExecutorStats executorStats = stats.get(name);
+        if (executorStats != null) {
+            executorStats.rejected.increment();
+        }
+    }
+
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        stats.forEach((name, executorStats) -> snapshots.add(executorStats.snapshot(name)));
+        return snapshots;
+    }
+
+    private static class ExecutorStats {
+
+        private final ThreadPoolTaskExecutor executor;
+        private final LatencySamples queueWait = new LatencySamples();
+        private final LatencySamples execution = new LatencySamples();
+        private final LongAdder rejected = new LongAdder();
+
+        ExecutorStats(ThreadPoolTaskExecutor executor) {
+            this.executor = executor;
+        }
+
+        Runnable decorate(Runnable task) {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt);
+                }
+            };
+        }
+
+        Snapshot snapshot(String name) {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            long[] waits = queueWait.sorted();
+            long[] runs = execution.sorted();
+            return Snapshot.builder()
+                    .name(name)
+                    .activeThreads(pool.getActiveCount())
+                    .poolSize(pool.getPoolSize())
+                    .maxPoolSize(pool.getMaximumPoolSize())
+                    .queueSize(pool.getQueue().size())
+                    .queueRemainingCapacity(pool.getQueue().remainingCapacity())
+                    .completedTasks(pool.getCompletedTaskCount())
+                    .rejectedTasks(rejected.sum())
+                    .queueWaitP50Ms(percentileMs(waits, 50))
+                    .queueWaitP99Ms(percentileMs(waits, 99))
+                    .executionP50Ms(percentileMs(runs, 50))
+                    .executionP99Ms(percentileMs(runs, 99))
+                    .executionMaxMs(percentileMs(runs, 100))
+                    .build();
+        }
+    }
+
+    /**
+     * Buffer circular con las últimas SAMPLE_SIZE mediciones (en nanosegundos)
+     */
+    private static class LatencySamples {
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private int next;
+        private int count;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % SAMPLE_SIZE;
+            count = Math.min(count + 1, SAMPLE_SIZE);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private static double percentileMs(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    @Getter
+    @Builder
+    public static class Snapshot {
+        private final String name;
+        private final int activeThreads;
+        private final int poolSize;
+        private final int maxPoolSize;
+        private final int queueSize;
+        private final int queueRemainingCapacity;
+        private final long completedTasks;
+        private final long rejectedTasks;
+        private final double queueWaitP50Ms;
+        private final double queueWaitP99Ms;
+        private final double executionP50Ms;
+        private final double executionP99Ms;
+        private final double executionMaxMs;
+    }
+}
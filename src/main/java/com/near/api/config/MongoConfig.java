@@ -0,0 +1,13 @@
+package com.near.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Habilita la auditoría de MongoDB para poblar @CreatedDate/@LastModifiedDate
+ * (created_at de los mensajes es parte del cursor de paginación).
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoConfig {
+}
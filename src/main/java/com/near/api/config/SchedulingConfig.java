@@ -0,0 +1,13 @@
+package com.near.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas @Scheduled (expiración de requests/conversaciones,
+ * reintentos de notificaciones, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,6 +1,7 @@
 package com.near.api.config;
 
 import com.near.api.infrastructure.security.JwtAuthenticationFilter;
+import com.near.api.infrastructure.security.OperatorRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,6 +40,12 @@ public class SecurityConfig {
                                 "/ws/**",
                                 "/error"
                         ).permitAll()
+                        // Operación interna: solo usuarios listados en auth.operators.user-ids
+                        .requestMatchers(
+                                "/api/v1/notifications/dead-letters/**",
+                                "/api/v1/notifications/metrics/**"
+                        )
+                        .hasRole(OperatorRegistry.OPERATOR_ROLE)
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
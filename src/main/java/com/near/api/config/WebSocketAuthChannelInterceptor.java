@@ -1,6 +1,8 @@
 package com.near.api.config;
 
 import com.near.api.infrastructure.security.JwtTokenProvider;
+import com.near.api.infrastructure.security.UserStatusRegistry;
+import com.near.api.infrastructure.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -27,6 +30,7 @@ import java.util.UUID;
 public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserStatusRegistry userStatusRegistry;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -45,9 +49,15 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
             if (token != null) {
                 try {
-                    // Validar token y extraer userId
-                    if (jwtTokenProvider.validateToken(token)) {
-                        UUID userId = jwtTokenProvider.getUserIdFromToken(token);
+                    // Validar token y extraer userId en una sola verificación
+                    Optional<VerifiedToken> verified = jwtTokenProvider.verify(token);
+                    if (verified.isPresent()) {
+                        UUID userId = verified.get().getUserId();
+
+                        if (userStatusRegistry.isBlocked(userId)) {
+                            log.warn("Usuario bloqueado intentó conectarse por WebSocket: {}", userId);
+                            throw new IllegalArgumentException("Usuario inactivo o suspendido");
+                        }
 
                         // Crear autenticación
                         UsernamePasswordAuthenticationToken authentication =
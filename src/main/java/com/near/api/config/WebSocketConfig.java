@@ -1,6 +1,7 @@
 package com.near.api.config;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -8,19 +9,50 @@ import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBr
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * Configuración de WebSocket/STOMP.
+ *
+ * Con chat.broker.mode=relay los mensajes pasan por un broker STOMP externo,
+ * así un mensaje enviado desde la instancia A llega a los suscriptores conectados
+ * a la instancia B. Para probarlo en local:
+ *   docker run -d --name near-stomp -p 61613:61613 -p 8161:8161 apache/activemq-classic
+ *   CHAT_BROKER_MODE=relay ./mvnw spring-boot:run   (levantar dos instancias en puertos distintos)
+ * (RabbitMQ no sirve tal cual: no admite "/" dentro de los destinos /topic/chat/{id}/...)
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor;
+    private final ChatSubscriptionInterceptor chatSubscriptionInterceptor;
+    private final ChatBrokerProperties chatBrokerProperties;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Prefijo para mensajes que van al broker (subscripciones del cliente)
         // /topic -> mensajes públicos (broadcast)
         // /queue -> mensajes privados (punto a punto)
-        registry.enableSimpleBroker("/topic", "/queue");
+        if (chatBrokerProperties.getMode() == ChatBrokerProperties.Mode.RELAY) {
+            ChatBrokerProperties.Relay relay = chatBrokerProperties.getRelay();
+            log.info("Chat usando broker STOMP externo en {}:{}", relay.getHost(), relay.getPort());
+
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relay.getHost())
+                    .setRelayPort(relay.getPort())
+                    .setVirtualHost(relay.getVirtualHost())
+                    .setClientLogin(relay.getClientLogin())
+                    .setClientPasscode(relay.getClientPasscode())
+                    .setSystemLogin(relay.getSystemLogin())
+                    .setSystemPasscode(relay.getSystemPasscode())
+                    // Destinos /user/... de usuarios conectados a otra instancia
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    // Registro de sesiones compartido entre instancias
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
 
         // Prefijo para mensajes que van a los @MessageMapping del servidor
         registry.setApplicationDestinationPrefixes("/app");
@@ -46,6 +78,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         // Interceptor para autenticación JWT en conexiones WebSocket
-        registration.interceptors(webSocketAuthChannelInterceptor);
+        // y luego autorización por conversación (una vez por sesión)
+        registration.interceptors(webSocketAuthChannelInterceptor, chatSubscriptionInterceptor);
     }
 }
\ No newline at end of file
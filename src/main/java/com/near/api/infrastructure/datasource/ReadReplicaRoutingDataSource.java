@@ -0,0 +1,110 @@
+package com.near.api.infrastructure.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enruta cada conexión al primario o a una réplica según la transacción actual:
+ *  - @Transactional(readOnly = true) -> réplicas (round-robin)
+ *  - escrituras, lecturas con lock y código sin transacción -> primario
+ *  - lecturas de un usuario que confirmó una escritura hace menos que la ventana de lag -> primario
+ *
+ * Debe envolverse en un LazyConnectionDataSourceProxy: el flag readOnly de la
+ * transacción se conoce recién después de que el transaction manager pide la conexión.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA_PREFIX = "replica-";
+
+    private final int replicaCount;
+    private final RecentWriteTracker recentWriteTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                        RecentWriteTracker recentWriteTracker) {
+        this.replicaCount = replicas.size();
+        this.recentWriteTracker = recentWriteTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        String userKey = currentUserKey();
+
+        if (!inTransaction || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (inTransaction && userKey != null) {
+                markWriteOnCommit(userKey);
+            }
+            return PRIMARY;
+        }
+
+        if (replicaCount == 0 || (userKey != null && recentWriteTracker.wroteRecently(userKey))) {
+            return PRIMARY;
+        }
+
+        return REPLICA_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+
+    /**
+     * La escritura se registra al confirmar, no al tomar la conexión: una transacción más
+     * larga que la ventana (o que hace rollback) no deja una marca vencida o falsa.
+     * Una sola sincronización por transacción, aunque pida varias conexiones.
+     */
+    private void markWriteOnCommit(String userKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriteTracker.markWrite(userKey);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WriteCommitSynchronization) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WriteCommitSynchronization(userKey));
+    }
+
+    private class WriteCommitSynchronization implements TransactionSynchronization {
+
+        private final String userKey;
+
+        WriteCommitSynchronization(String userKey) {
+            this.userKey = userKey;
+        }
+
+        @Override
+        public void afterCommit() {
+            recentWriteTracker.markWrite(userKey);
+        }
+    }
+
+    /**
+     * Id del usuario autenticado (HTTP o STOMP), null en schedulers y peticiones anónimas
+     */
+    private String currentUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
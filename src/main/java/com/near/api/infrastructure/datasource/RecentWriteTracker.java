@@ -0,0 +1,104 @@
+package com.near.api.infrastructure.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recuerda qué usuarios confirmaron una transacción de escritura recientemente.
+ * Mientras dure la ventana (el lag esperado de las réplicas) sus lecturas van
+ * al primario, así ven sus propios cambios (read-your-writes).
+ *
+ * La marca vive en memoria de la instancia y, en peticiones HTTP, también en una
+ * cookie de vida corta: si la siguiente lectura del cliente cae en otra instancia,
+ * la cookie la manda igual al primario. Las sesiones STOMP y los clientes que no
+ * guardan cookies solo tienen la garantía dentro de la misma instancia.
+ */
+public class RecentWriteTracker {
+
+    static final String COOKIE_NAME = "near_last_write";
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+    private final long windowNanos;
+
+    // usuario -> System.nanoTime() de la última escritura
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public RecentWriteTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    /**
+     * Registrar una escritura ya confirmada (se llama desde afterCommit)
+     */
+    public void markWrite(String userKey) {
+        long now = System.nanoTime();
+        lastWrites.put(userKey, now);
+
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+
+        writeCookie();
+    }
+
+    public boolean wroteRecently(String userKey) {
+        Long writtenAt = lastWrites.get(userKey);
+        if (writtenAt != null && System.nanoTime() - writtenAt <= windowNanos) {
+            return true;
+        }
+        return cookieIsRecent();
+    }
+
+    private void writeCookie() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(attributes.getRequest().isSecure());
+        cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    private boolean cookieIsRecent() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (request.getCookies() == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : request.getCookies()) {
+            if (!COOKIE_NAME.equals(cookie.getName())) {
+                continue;
+            }
+            try {
+                long writtenAt = Long.parseLong(cookie.getValue());
+                // Tolera algo de desfase de reloj entre instancias, no marcas arbitrarias a futuro
+                return now - writtenAt <= windowMillis && writtenAt - now <= windowMillis;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
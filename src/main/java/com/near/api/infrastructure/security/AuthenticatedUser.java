@@ -0,0 +1,45 @@
+package com.near.api.infrastructure.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Principal construido a partir de los claims del JWT, sin consultar la base de datos.
+ * getUsername() devuelve el id del usuario, igual que el UserDetails que se usaba antes.
+ * El estado activo/baneado lo resuelve UserStatusRegistry antes de autenticar.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final UUID userId;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public AuthenticatedUser(UUID userId) {
+        this(userId, Collections.emptyList());
+    }
+
+    public AuthenticatedUser(UUID userId, Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public String getUsername() {
+        return userId.toString();
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
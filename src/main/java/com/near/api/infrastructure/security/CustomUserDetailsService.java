@@ -9,7 +9,6 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -32,19 +31,4 @@ public class CustomUserDetailsService implements UserDetailsService {
                 Collections.emptyList()
         );
     }
-
-    public UserDetails loadUserById(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + userId));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getId().toString(),
-                user.getPasswordHash() != null ? user.getPasswordHash() : "",
-                user.getIsActive(),
-                true,
-                true,
-                !user.getIsBanned(),
-                Collections.emptyList()
-        );
-    }
 }
@@ -14,6 +14,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -21,7 +22,8 @@ import java.util.UUID;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserStatusRegistry userStatusRegistry;
+    private final OperatorRegistry operatorRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,9 +32,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            UUID userId = jwtTokenProvider.getUserIdFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserById(userId);
+        Optional<VerifiedToken> verified = StringUtils.hasText(token)
+                ? jwtTokenProvider.verify(token)
+                : Optional.empty();
+
+        // El principal sale de los claims: solo se consulta el registro en memoria de bloqueados
+        if (verified.isPresent() && !userStatusRegistry.isBlocked(verified.get().getUserId())) {
+            UUID userId = verified.get().getUserId();
+            UserDetails userDetails = new AuthenticatedUser(userId, operatorRegistry.authoritiesFor(userId));
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -7,7 +7,14 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -17,12 +24,29 @@ public class JwtTokenProvider {
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
 
+    // El parser es inmutable y thread-safe: se construye una sola vez
+    private final JwtParser parser;
+
+    // Tokens ya verificados (clave: SHA-256 del token), en orden de acceso para expulsar el LRU.
+    // Cada entrada vive como máximo hasta el exp del propio token.
+    private final int verificationCacheMaxSize;
+    private final Map<String, VerifiedToken> verifiedTokens;
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration:86400000}") long accessTokenExpiration) {
+            @Value("${jwt.expiration:86400000}") long accessTokenExpiration,
+            @Value("${jwt.verification-cache.max-size:10000}") int verificationCacheMaxSize) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = accessTokenExpiration * 7; // 7 días para refresh
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.verificationCacheMaxSize = verificationCacheMaxSize;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > JwtTokenProvider.this.verificationCacheMaxSize;
+            }
+        };
     }
 
     public String generateAccessToken(UUID userId, String email, Boolean isAnonymous) {
@@ -52,29 +76,81 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifica firma y expiración del token y devuelve sus claims en una sola pasada.
+     * Los tokens válidos se recuerdan hasta su expiración, así las peticiones siguientes
+     * con el mismo token se resuelven con un hash en lugar de recalcular el HMAC.
+     * Los tokens inválidos no se cachean.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String key = hash(token);
+
+        VerifiedToken cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(key);
+            if (cached != null && cached.isExpired(now)) {
+                verifiedTokens.remove(key);
+                return Optional.empty();
+            }
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified == null) {
+            return Optional.empty();
+        }
+
+        if (verificationCacheMaxSize > 0) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(key, verified);
+            }
+        }
+        return Optional.of(verified);
+    }
 
-        return UUID.fromString(claims.getSubject());
+    public UUID getUserIdFromToken(String token) {
+        return verify(token)
+                .map(VerifiedToken::getUserId)
+                .orElseThrow(() -> new JwtException("Token inválido o expirado"));
     }
 
     public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    public long getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
+
+    private VerifiedToken parse(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedToken(
+                    UUID.fromString(claims.getSubject()),
+                    claims.get("type", String.class),
+                    claims.getExpiration().toInstant()
+            );
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
 
-    public long getAccessTokenExpiration() {
-        return accessTokenExpiration;
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
@@ -0,0 +1,34 @@
+package com.near.api.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Usuarios con acceso a los endpoints de operación (dead-letter, métricas internas).
+ * La lista sale de configuración; vacía por defecto, es decir, nadie tiene acceso.
+ */
+@Component
+public class OperatorRegistry {
+
+    public static final String OPERATOR_ROLE = "OPERATOR";
+
+    private static final List<GrantedAuthority> OPERATOR_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_" + OPERATOR_ROLE));
+
+    private final Set<UUID> operatorIds;
+
+    public OperatorRegistry(@Value("${auth.operators.user-ids:}") List<UUID> operatorIds) {
+        this.operatorIds = Set.copyOf(operatorIds);
+    }
+
+    public List<GrantedAuthority> authoritiesFor(UUID userId) {
+        return operatorIds.contains(userId) ? OPERATOR_AUTHORITIES : Collections.emptyList();
+    }
+}
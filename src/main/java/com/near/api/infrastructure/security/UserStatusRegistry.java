@@ -0,0 +1,75 @@
+package com.near.api.infrastructure.security;
+
+import com.near.api.modules.auth.event.UserStatusChangedEvent;
+import com.near.api.modules.auth.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Usuarios que no pueden autenticarse (desactivados o baneados), en memoria.
+ * Se actualiza al instante con UserStatusChangedEvent (después del commit) y se
+ * recarga completo periódicamente para cubrir cambios hechos fuera de la API.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatusRegistry {
+
+    private final UserRepository userRepository;
+
+    private volatile Set<UUID> blockedUsers = ConcurrentHashMap.newKeySet();
+
+    public boolean isBlocked(UUID userId) {
+        return blockedUsers.contains(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserStatusChanged(UserStatusChangedEvent event) {
+        if (event.isBlocked()) {
+            if (blockedUsers.add(event.getUserId())) {
+                log.info("Usuario {} bloqueado para autenticación", event.getUserId());
+            }
+        } else if (blockedUsers.remove(event.getUserId())) {
+            log.info("Usuario {} habilitado nuevamente", event.getUserId());
+        }
+    }
+
+    /**
+     * Carga inicial síncrona, antes de que el contexto atienda tráfico.
+     * Si falla, el arranque falla: con el set vacío cualquier usuario bloqueado podría autenticarse.
+     */
+    @PostConstruct
+    public void load() {
+        blockedUsers = loadBlockedUsers();
+        log.info("Usuarios bloqueados cargados: {}", blockedUsers.size());
+    }
+
+    /**
+     * Recarga completa periódica desde la base de datos
+     */
+    @Scheduled(fixedDelayString = "${auth.user-status.refresh-interval-ms:60000}",
+            initialDelayString = "${auth.user-status.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            blockedUsers = loadBlockedUsers();
+            log.debug("Usuarios bloqueados recargados: {}", blockedUsers.size());
+        } catch (Exception e) {
+            // Se conserva el set anterior hasta la próxima recarga
+            log.error("Error recargando usuarios bloqueados: {}", e.getMessage());
+        }
+    }
+
+    private Set<UUID> loadBlockedUsers() {
+        Set<UUID> loaded = ConcurrentHashMap.newKeySet();
+        loaded.addAll(userRepository.findBlockedUserIds());
+        return loaded;
+    }
+}
@@ -0,0 +1,31 @@
+package com.near.api.infrastructure.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Resultado de verificar un JWT: los claims que usa la autenticación,
+ * extraídos una sola vez al validar la firma.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final UUID userId;
+
+    // "refresh" para refresh tokens, null para access tokens
+    private final String type;
+
+    private final Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(type);
+    }
+}
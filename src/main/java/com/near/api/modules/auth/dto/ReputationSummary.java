@@ -0,0 +1,13 @@
+package com.near.api.modules.auth.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección de la reputación agregada de un usuario
+ */
+public interface ReputationSummary {
+
+    BigDecimal getReputationStars();
+
+    Integer getTotalRatingsReceived();
+}
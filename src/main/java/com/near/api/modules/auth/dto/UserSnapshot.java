@@ -0,0 +1,33 @@
+package com.near.api.modules.auth.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.locationtech.jts.geom.Point;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Copia de solo lectura de los datos de un usuario que los servicios consultan
+ * a menudo (identidad pública, reputación y ubicación).
+ * Para asociar el usuario a una entidad usar userRepository.getReferenceById.
+ */
+@Getter
+@Builder
+public class UserSnapshot {
+
+    private final UUID id;
+    private final boolean anonymous;
+    private final String anonymousCode;
+    private final String fullName;
+    private final String profilePhotoUrl;
+    private final BigDecimal reputationStars;
+    private final Point currentLocation;
+
+    public String getDisplayName() {
+        if (anonymous) {
+            return "Anónimo " + anonymousCode;
+        }
+        return fullName != null ? fullName : "Usuario";
+    }
+}
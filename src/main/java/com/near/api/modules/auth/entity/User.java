@@ -1,5 +1,6 @@
 package com.near.api.modules.auth.entity;
 
+import com.near.api.modules.auth.event.UserStatusEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserStatusEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -64,6 +66,24 @@ public class User {
     @Builder.Default
     private Integer totalRatingsReceived = 0;
 
+    // Agregados de calificaciones recibidas por rol. Solo los modifica
+    // UserRepository.addRatingAs* (UPDATE atómico); el entity nunca los escribe.
+    @Column(name = "rating_sum_as_responder", precision = 12, scale = 2, nullable = false, updatable = false)
+    @Builder.Default
+    private BigDecimal ratingSumAsResponder = BigDecimal.ZERO;
+
+    @Column(name = "rating_count_as_responder", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer ratingCountAsResponder = 0;
+
+    @Column(name = "rating_sum_as_requester", precision = 12, scale = 2, nullable = false, updatable = false)
+    @Builder.Default
+    private BigDecimal ratingSumAsRequester = BigDecimal.ZERO;
+
+    @Column(name = "rating_count_as_requester", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer ratingCountAsRequester = 0;
+
     @Column(name = "total_ab_trust_points")
     @Builder.Default
     private Integer totalAbTrustPoints = 0;
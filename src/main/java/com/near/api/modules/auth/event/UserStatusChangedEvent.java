@@ -0,0 +1,23 @@
+package com.near.api.modules.auth.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Se publica cada vez que se persiste un usuario, con su estado de acceso actual.
+ * Lo consume UserStatusRegistry para mantener al día el set de usuarios bloqueados.
+ */
+@Getter
+@AllArgsConstructor
+public class UserStatusChangedEvent {
+
+    private final UUID userId;
+    private final boolean active;
+    private final boolean banned;
+
+    public boolean isBlocked() {
+        return !active || banned;
+    }
+}
@@ -0,0 +1,29 @@
+package com.near.api.modules.auth.event;
+
+import com.near.api.modules.auth.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica el estado activo/baneado del usuario al persistirlo, sin importar
+ * qué servicio lo haya modificado.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onUserSaved(User user) {
+        eventPublisher.publishEvent(new UserStatusChangedEvent(
+                user.getId(),
+                !Boolean.FALSE.equals(user.getIsActive()),
+                Boolean.TRUE.equals(user.getIsBanned())
+        ));
+    }
+}
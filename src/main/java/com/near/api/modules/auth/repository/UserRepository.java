@@ -1,7 +1,9 @@
 package com.near.api.modules.auth.repository;
 
+import com.near.api.modules.auth.dto.ReputationSummary;
 import com.near.api.modules.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,6 +25,52 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByAnonymousCode(String anonymousCode);
 
+    /**
+     * Ids de usuarios que no pueden autenticarse (desactivados o baneados)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false OR u.isBanned = true")
+    List<UUID> findBlockedUserIds();
+
+    /**
+     * Sumar una calificación recibida como responder y recalcular el promedio combinado
+     * en la misma sentencia (las expresiones usan los valores previos de la fila).
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE users SET
+            rating_sum_as_responder = rating_sum_as_responder + :rating,
+            rating_count_as_responder = rating_count_as_responder + 1,
+            total_ratings_received = rating_count_as_responder + rating_count_as_requester + 1,
+            reputation_stars = ROUND((rating_sum_as_responder + rating_sum_as_requester + :rating)
+                / (rating_count_as_responder + rating_count_as_requester + 1), 2),
+            updated_at = NOW()
+        WHERE id = :userId
+        """, nativeQuery = true)
+    int addRatingAsResponder(@Param("userId") UUID userId, @Param("rating") BigDecimal rating);
+
+    /**
+     * Sumar una calificación recibida como requester y recalcular el promedio combinado
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE users SET
+            rating_sum_as_requester = rating_sum_as_requester + :rating,
+            rating_count_as_requester = rating_count_as_requester + 1,
+            total_ratings_received = rating_count_as_responder + rating_count_as_requester + 1,
+            reputation_stars = ROUND((rating_sum_as_responder + rating_sum_as_requester + :rating)
+                / (rating_count_as_responder + rating_count_as_requester + 1), 2),
+            updated_at = NOW()
+        WHERE id = :userId
+        """, nativeQuery = true)
+    int addRatingAsRequester(@Param("userId") UUID userId, @Param("rating") BigDecimal rating);
+
+    /**
+     * Reputación vigente (para reflejarla en la respuesta tras addRatingAs*)
+     */
+    @Query("SELECT u.reputationStars AS reputationStars, u.totalRatingsReceived AS totalRatingsReceived " +
+            "FROM User u WHERE u.id = :userId")
+    Optional<ReputationSummary> findReputationById(@Param("userId") UUID userId);
+
     @Query("SELECT u FROM User u WHERE u.authProvider = :provider AND u.authProviderId = :providerId")
     Optional<User> findByAuthProviderAndProviderId(String provider, String providerId);
 
@@ -67,6 +115,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
         ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
         :radiusMeters
     )
+    ORDER BY ST_Distance(
+        u.current_location::geography,
+        ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
+    )
     LIMIT :maxResults
     """, nativeQuery = true)
     List<UUID> findNearbyActiveUsersForTrustMode(
@@ -1,6 +1,7 @@
 package com.near.api.modules.auth.service;
 
 import com.near.api.infrastructure.security.JwtTokenProvider;
+import com.near.api.infrastructure.security.VerifiedToken;
 import com.near.api.modules.auth.dto.request.AnonymousLoginRequest;
 import com.near.api.modules.auth.dto.request.LoginRequest;
 import com.near.api.modules.auth.dto.request.RefreshTokenRequest;
@@ -135,11 +136,9 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        if (!jwtTokenProvider.validateToken(request.getRefreshToken())) {
-            throw new UnauthorizedException("Refresh token inválido o expirado");
-        }
-
-        UUID userId = jwtTokenProvider.getUserIdFromToken(request.getRefreshToken());
+        UUID userId = jwtTokenProvider.verify(request.getRefreshToken())
+                .map(VerifiedToken::getUserId)
+                .orElseThrow(() -> new UnauthorizedException("Refresh token inválido o expirado"));
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UnauthorizedException("Usuario no encontrado"));
 
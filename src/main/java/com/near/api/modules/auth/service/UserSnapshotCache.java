@@ -0,0 +1,152 @@
+package com.near.api.modules.auth.service;
+
+import com.near.api.modules.auth.dto.UserSnapshot;
+import com.near.api.modules.auth.entity.User;
+import com.near.api.modules.auth.event.UserStatusChangedEvent;
+import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.shared.exception.ResourceNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Snapshots de usuario compartidos entre controller y servicios.
+ * Dentro de una petición HTTP cada usuario se carga como máximo una vez (memo en los
+ * atributos del request); entre peticiones, y en schedulers o WebSocket, se sirve
+ * desde un LRU con TTL corto.
+ *
+ * Se invalida cuando se persiste el usuario (UserStatusChangedEvent). Las
+ * actualizaciones masivas por query no disparan el evento: las acota el TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSnapshotCache {
+
+    private static final String REQUEST_ATTRIBUTE = UserSnapshotCache.class.getName() + ".snapshots";
+
+    private final UserRepository userRepository;
+
+    @Value("${auth.user-snapshot.max-size:10000}")
+    private int maxSize;
+
+    @Value("${auth.user-snapshot.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // LRU acotado (access-order)
+    private final Map<UUID, CachedSnapshot> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedSnapshot> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * Snapshot del usuario o ResourceNotFoundException si no existe
+     */
+    public UserSnapshot get(UUID userId) {
+        return find(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    }
+
+    public Optional<UserSnapshot> find(UUID userId) {
+        Map<UUID, UserSnapshot> requestMemo = requestMemo();
+        if (requestMemo != null && requestMemo.containsKey(userId)) {
+            return Optional.of(requestMemo.get(userId));
+        }
+
+        UserSnapshot snapshot = null;
+        synchronized (entries) {
+            CachedSnapshot cached = entries.get(userId);
+            if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+                snapshot = cached.getSnapshot();
+            }
+        }
+
+        if (snapshot == null) {
+            Optional<UserSnapshot> loaded = userRepository.findById(userId).map(UserSnapshotCache::toSnapshot);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            snapshot = loaded.get();
+            store(snapshot);
+        }
+
+        if (requestMemo != null) {
+            requestMemo.put(userId, snapshot);
+        }
+        return Optional.of(snapshot);
+    }
+
+    public void evict(UUID userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+        Map<UUID, UserSnapshot> requestMemo = requestMemo();
+        if (requestMemo != null) {
+            requestMemo.remove(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSaved(UserStatusChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    private void store(UserSnapshot snapshot) {
+        CachedSnapshot cached = new CachedSnapshot(snapshot, Instant.now().plus(Duration.ofSeconds(ttlSeconds)));
+        synchronized (entries) {
+            entries.put(snapshot.getId(), cached);
+        }
+    }
+
+    /**
+     * Memo del request HTTP actual, o null fuera de un request (schedulers, STOMP)
+     */
+    @SuppressWarnings("unchecked")
+    private Map<UUID, UserSnapshot> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<UUID, UserSnapshot> memo = (Map<UUID, UserSnapshot>)
+                attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    private static UserSnapshot toSnapshot(User user) {
+        return UserSnapshot.builder()
+                .id(user.getId())
+                .anonymous(Boolean.TRUE.equals(user.getIsAnonymous()))
+                .anonymousCode(user.getAnonymousCode())
+                .fullName(user.getFullName())
+                .profilePhotoUrl(user.getProfilePhotoUrl())
+                .reputationStars(user.getReputationStars() != null ? user.getReputationStars() : BigDecimal.ZERO)
+                .currentLocation(user.getCurrentLocation())
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedSnapshot {
+        private final UserSnapshot snapshot;
+        private final Instant expiresAt;
+    }
+}
@@ -6,8 +6,10 @@ import com.near.api.modules.chat.dto.request.UnlockMediaRequest;
 import com.near.api.modules.chat.dto.response.ConversationListResponse;
 import com.near.api.modules.chat.dto.response.ConversationResponse;
 import com.near.api.modules.chat.dto.response.MessageResponse;
+import com.near.api.modules.chat.dto.response.MessageSyncResponse;
 import com.near.api.modules.chat.service.ChatService;
 import com.near.api.shared.dto.ApiResponse;
+import com.near.api.shared.dto.CursorPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -34,12 +36,12 @@ public class ChatController {
     // ============================================
 
     /**
-     * Obtener todas mis conversaciones (paginado)
+     * Obtener todas mis conversaciones (paginado, ordenadas por último mensaje)
      */
     @GetMapping("/conversations")
     public ResponseEntity<ApiResponse<Page<ConversationListResponse>>> getMyConversations(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PageableDefault(size = 20, sort = "updatedAt", direction = Sort.Direction.DESC) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable) {
         UUID userId = UUID.fromString(userDetails.getUsername());
         Page<ConversationListResponse> conversations = chatService.getMyConversations(userId, pageable);
         return ResponseEntity.ok(ApiResponse.success(conversations));
@@ -108,6 +110,35 @@ public class ChatController {
         return ResponseEntity.ok(ApiResponse.success(messages));
     }
 
+    /**
+     * Historial por cursor (keyset): sin offset ni count.
+     * Primera página sin "before"; las siguientes con el nextCursor recibido.
+     */
+    @GetMapping("/conversations/{conversationId}/messages/history")
+    public ResponseEntity<ApiResponse<CursorPage<MessageResponse>>> getMessageHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size) {
+        UUID userId = UUID.fromString(userDetails.getUsername());
+        CursorPage<MessageResponse> messages = chatService.getMessageHistory(conversationId, userId, before, size);
+        return ResponseEntity.ok(ApiResponse.success(messages));
+    }
+
+    /**
+     * Sincronización al reconectarse: mensajes posteriores al cursor y cambios de estado
+     */
+    @GetMapping("/conversations/{conversationId}/messages/sync")
+    public ResponseEntity<ApiResponse<MessageSyncResponse>> syncMessages(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String conversationId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "100") int size) {
+        UUID userId = UUID.fromString(userDetails.getUsername());
+        MessageSyncResponse sync = chatService.syncMessages(conversationId, userId, after, size);
+        return ResponseEntity.ok(ApiResponse.success(sync));
+    }
+
     /**
      * Enviar mensaje de texto (alternativa REST al WebSocket)
      */
@@ -4,6 +4,7 @@ import com.near.api.modules.chat.dto.request.SendMediaMessageRequest;
 import com.near.api.modules.chat.dto.request.SendMessageRequest;
 import com.near.api.modules.chat.dto.response.MessageResponse;
 import com.near.api.modules.chat.service.ChatService;
+import com.near.api.modules.chat.service.TypingIndicatorService;
 import com.near.api.shared.exception.BadRequestException;
 import com.near.api.shared.exception.UnauthorizedException;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,7 @@ public class ChatWebSocketController {
 
     private final ChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final TypingIndicatorService typingIndicatorService;
 
     // ============================================
     // ENVIAR MENSAJES
@@ -49,6 +51,9 @@ public class ChatWebSocketController {
         try {
             MessageResponse response = chatService.sendTextMessage(conversationId, userId, request);
 
+            // Al enviar el mensaje deja de escribir
+            typingIndicatorService.onTyping(conversationId, userId, null, false);
+
             // El servicio ya envía el broadcast, pero podemos enviar confirmación al sender
             messagingTemplate.convertAndSendToUser(
                     principal.getName(),
@@ -115,7 +120,7 @@ public class ChatWebSocketController {
     /**
      * Marcar mensajes como leídos
      * Cliente envía a: /app/chat/{conversationId}/mark-read
-     * Notifica a: /topic/chat/{conversationId}/read
+     * Notifica a: /topic/chat/{conversationId}/read (agrupado por ReadReceiptAggregator)
      */
     @MessageMapping("/chat/{conversationId}/mark-read")
     public void markAsRead(
@@ -126,19 +131,6 @@ public class ChatWebSocketController {
 
         try {
             chatService.markConversationAsRead(conversationId, userId);
-
-            // Notificar al otro participante que los mensajes fueron leídos
-            messagingTemplate.convertAndSend(
-                    "/topic/chat/" + conversationId + "/read",
-                    Map.of(
-                            "userId", userId.toString(),
-                            "conversationId", conversationId,
-                            "timestamp", Instant.now().toString()
-                    )
-            );
-
-            log.debug("Conversación {} marcada como leída por {}", conversationId, userId);
-
         } catch (Exception e) {
             log.error("Error marcando como leído: {}", e.getMessage());
         }
@@ -147,31 +139,20 @@ public class ChatWebSocketController {
     /**
      * Notificar que el usuario está escribiendo
      * Cliente envía a: /app/chat/{conversationId}/typing
-     * Broadcast a: /topic/chat/{conversationId}/typing
+     * Broadcast a: /topic/chat/{conversationId}/typing (solo transiciones, ver TypingIndicatorService)
      */
     @MessageMapping("/chat/{conversationId}/typing")
     public void userTyping(
             @DestinationVariable String conversationId,
             @Payload Map<String, Boolean> payload,
-            Principal principal) {
+            Principal principal,
+            SimpMessageHeaderAccessor headerAccessor) {
 
+        // La participación ya fue validada por ChatSubscriptionInterceptor
         UUID userId = extractUserId(principal);
         boolean isTyping = payload.getOrDefault("isTyping", false);
 
-        // Verificar que es participante
-        if (!chatService.isParticipant(conversationId, userId)) {
-            return;
-        }
-
-        // Broadcast a la conversación (excepto al sender)
-        messagingTemplate.convertAndSend(
-                "/topic/chat/" + conversationId + "/typing",
-                Map.of(
-                        "userId", userId.toString(),
-                        "isTyping", isTyping,
-                        "timestamp", Instant.now().toString()
-                )
-        );
+        typingIndicatorService.onTyping(conversationId, userId, headerAccessor.getSessionId(), isTyping);
     }
 
     // ============================================
@@ -235,14 +216,9 @@ public class ChatWebSocketController {
             Principal principal,
             SimpMessageHeaderAccessor headerAccessor) {
 
+        // La participación ya fue validada (y registrada en la sesión) por ChatSubscriptionInterceptor
         UUID userId = extractUserId(principal);
 
-        // Verificar que es participante
-        if (!chatService.isParticipant(conversationId, userId)) {
-            sendErrorToUser(principal.getName(), conversationId, "No eres participante de esta conversación");
-            return;
-        }
-
         // Guardar conversationId en la sesión para cleanup
         headerAccessor.getSessionAttributes().put("conversationId", conversationId);
 
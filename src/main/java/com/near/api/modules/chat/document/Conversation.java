@@ -16,6 +16,7 @@ import java.util.UUID;
 
 @Document(collection = "conversations")
 @CompoundIndex(name = "idx_participants_status", def = "{'participants.userId': 1, 'status': 1}")
+@CompoundIndex(name = "idx_status_expires", def = "{'status': 1, 'expires_at': 1}")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,10 +54,15 @@ public class Conversation {
     @Field("updated_at")
     private Instant updatedAt;
 
-    @Indexed(expireAfter = "0s")
     @Field("expires_at")
     private Instant expiresAt;
 
+    // La borra el TTL de MongoDB. Solo la setea el job de expiración después de procesarla
+    // (estado, mensaje del sistema, limpieza de media), así el TTL nunca se adelanta al job.
+    @Indexed(expireAfter = "0s")
+    @Field("purge_at")
+    private Instant purgeAt;
+
     // === Embedded Classes ===
 
     @Data
@@ -0,0 +1,107 @@
+package com.near.api.modules.chat.document;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Fila del inbox de un usuario: proyección desnormalizada de una conversación
+ * vista por uno de sus participantes. Hay una por (conversación, participante)
+ * y se actualiza de forma incremental al enviar, leer y expirar.
+ * La lista de conversaciones y el contador de no leídos se resuelven con
+ * una sola lectura indexada sobre esta colección.
+ */
+@Document(collection = "inbox_entries")
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_inbox_user_sort", def = "{'user_id': 1, 'sort_at': -1}"),
+        @CompoundIndex(name = "idx_inbox_user_status_sort", def = "{'user_id': 1, 'status': 1, 'sort_at': -1}"),
+        @CompoundIndex(name = "idx_inbox_user_unread", def = "{'user_id': 1, 'unread_count': 1}")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InboxEntry {
+
+    // "conversationId:userId"
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private UUID userId;
+
+    @Indexed
+    @Field("conversation_id")
+    private String conversationId;
+
+    @Field("request_id")
+    private UUID requestId;
+
+    @Field("status")
+    private Conversation.ConversationStatus status;
+
+    // === Otro participante ===
+
+    @Field("other_user_id")
+    private UUID otherUserId;
+
+    @Field("other_user_display_name")
+    private String otherUserDisplayName;
+
+    @Field("other_user_profile_photo_url")
+    private String otherUserProfilePhotoUrl;
+
+    @Field("other_user_is_anonymous")
+    private Boolean otherUserIsAnonymous;
+
+    // === Último mensaje ===
+
+    @Field("last_message_preview")
+    private String lastMessagePreview;
+
+    @Field("last_message_type")
+    private Conversation.MessageType lastMessageType;
+
+    @Field("last_message_sender_id")
+    private UUID lastMessageSenderId;
+
+    @Field("last_message_at")
+    private Instant lastMessageAt;
+
+    // === Contadores ===
+
+    @Field("unread_count")
+    @Builder.Default
+    private Integer unreadCount = 0;
+
+    @Field("total_messages")
+    @Builder.Default
+    private Integer totalMessages = 0;
+
+    // Orden del inbox: último mensaje o, si no hay, creación
+    @Field("sort_at")
+    private Instant sortAt;
+
+    @Field("created_at")
+    private Instant createdAt;
+
+    @Field("expires_at")
+    private Instant expiresAt;
+
+    // Mismo TTL que la conversación (ver Conversation.purgeAt)
+    @Indexed(expireAfter = "0s")
+    @Field("purge_at")
+    private Instant purgeAt;
+
+    public static String entryId(String conversationId, UUID userId) {
+        return conversationId + ":" + userId;
+    }
+}
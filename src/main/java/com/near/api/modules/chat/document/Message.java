@@ -47,6 +47,10 @@ public class Message {
     @Field("read_at")
     private Instant readAt;
 
+    // Último cambio de estado (entrega, lectura, desbloqueo): lo usa la sincronización delta
+    @Field("status_changed_at")
+    private Instant statusChangedAt;
+
     // === Propinas ===
 
     @Field("has_tip")
@@ -64,10 +68,14 @@ public class Message {
     @Field("created_at")
     private Instant createdAt;
 
-    @Indexed(expireAfter = "0s")
     @Field("expires_at")
     private Instant expiresAt;
 
+    // TTL real: la setea el job de expiración de la conversación (ver Conversation.purgeAt)
+    @Indexed(expireAfter = "0s")
+    @Field("purge_at")
+    private Instant purgeAt;
+
     // === Embedded Classes ===
 
     @Data
@@ -48,6 +48,9 @@ public class MessageResponse {
 
     private Long remainingSeconds;
 
+    // Cursor de este mensaje: sirve como "after" en /messages/sync al reconectarse
+    private String cursor;
+
     // === Embedded Classes ===
 
     @Data
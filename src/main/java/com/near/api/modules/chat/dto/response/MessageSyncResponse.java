@@ -0,0 +1,37 @@
+package com.near.api.modules.chat.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delta para clientes que se reconectan: mensajes nuevos posteriores al cursor
+ * y mensajes ya conocidos cuyo estado cambió (entregado, leído, media desbloqueada).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSyncResponse {
+
+    // Mensajes nuevos, del más antiguo al más reciente
+    private List<MessageResponse> messages;
+
+    // Mensajes anteriores al cursor con cambios de estado
+    private List<MessageResponse> updated;
+
+    // Marca de agua "leído hasta" por participante (userId -> instante)
+    private Map<UUID, Instant> readUpTo;
+
+    // Cursor a usar en la próxima sincronización
+    private String nextCursor;
+
+    // true si quedaron mensajes nuevos sin devolver (volver a sincronizar con nextCursor)
+    private boolean hasMore;
+}
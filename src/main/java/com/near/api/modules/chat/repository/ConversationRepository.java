@@ -2,6 +2,7 @@ package com.near.api.modules.chat.repository;
 
 import com.near.api.modules.chat.document.Conversation;
 import com.near.api.modules.chat.document.Conversation.ConversationStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -10,6 +11,7 @@ import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -58,38 +60,65 @@ public interface ConversationRepository extends MongoRepository<Conversation, St
 
     // === Actualizaciones ===
 
+    /**
+     * Avanza la marca de agua de lectura del participante solo si sigue valiendo expectedReadUpTo
+     * (null: nunca leyó). Los no leídos se ajustan con un delta para no pisar los $inc de
+     * applyMessageSent. La escribe ReadReceiptAggregator por lotes; devuelve 0 si otro flush ganó.
+     */
+    @Query("{ '_id': ?0, 'participants': { '$elemMatch': { 'userId': ?1, 'lastReadAt': ?2 } } }")
+    @Update("{ '$set': { 'participants.$.lastReadAt': ?3 }, '$inc': { 'participants.$.unreadCount': ?4 } }")
+    long advanceReadUpTo(String conversationId, UUID userId, Instant expectedReadUpTo, Instant readUpTo,
+                         int unreadDelta);
+
+    /**
+     * Solo participantes y sus marcas de agua (para derivar el estado de lectura de los mensajes)
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'participants.userId': 1, 'participants.lastReadAt': 1 }")
+    Optional<Conversation> findReadWatermarks(String conversationId);
+
+    /**
+     * Todo el lado "conversación" de un mensaje enviado en un solo update:
+     * último mensaje, no leídos del destinatario y contadores de metadata.
+     * Con incrementos en 0 los contadores de media/nears quedan igual.
+     */
     @Query("{ '_id': ?0, 'participants.userId': ?1 }")
-    @Update("{ '$set': { 'participants.$.unreadCount': 0, 'participants.$.lastReadAt': ?2 } }")
-    void markAsRead(String conversationId, UUID userId, Instant readAt);
-
-    @Query("{ '_id': ?0, 'participants.userId': ?1 }")
-    @Update("{ '$inc': { 'participants.$.unreadCount': 1 } }")
-    void incrementUnreadCount(String conversationId, UUID recipientId);
-
-    @Query("{ '_id': ?0 }")
-    @Update("{ '$set': { 'lastMessage': ?1, 'updatedAt': ?2 }, '$inc': { 'metadata.totalMessages': 1 } }")
-    void updateLastMessage(String conversationId, Conversation.LastMessage lastMessage, Instant updatedAt);
-
-    @Query("{ '_id': ?0 }")
-    @Update("{ '$inc': { 'metadata.totalMedia': 1 } }")
-    void incrementMediaCount(String conversationId);
+    @Update("{ '$set': { 'lastMessage': ?2, 'updatedAt': ?3 }, " +
+            "'$inc': { 'participants.$.unreadCount': 1, 'metadata.totalMessages': 1, " +
+            "'metadata.totalMedia': ?4, 'metadata.totalNearsTransferred': ?5 } }")
+    void applyMessageSent(String conversationId, UUID recipientId, Conversation.LastMessage lastMessage,
+                          Instant updatedAt, int mediaIncrement, int nearsIncrement);
 
     @Query("{ '_id': ?0 }")
     @Update("{ '$inc': { 'metadata.totalNearsTransferred': ?1 } }")
     void addNearsTransferred(String conversationId, Integer amount);
 
+    // Cambia datos cacheados: invalidar ConversationCache después de llamarlo
     @Query("{ '_id': ?0 }")
     @Update("{ '$set': { 'status': ?1 } }")
     void updateStatus(String conversationId, ConversationStatus status);
 
+    // Cambia datos cacheados: invalidar ConversationCache después de llamarlo
     @Query("{ '_id': ?0, 'participants.userId': ?1 }")
     @Update("{ '$set': { 'participants.$.tipsEnabled': ?2 } }")
     void updateTipsEnabled(String conversationId, UUID userId, Boolean tipsEnabled);
 
     // === Expiración ===
 
-    @Query("{ 'status': 'ACTIVE', 'expiresAt': { $lte: ?0 } }")
-    List<Conversation> findExpiredConversations(Instant now);
+    /**
+     * Siguiente lote de conversaciones vencidas (solo los campos que usa el job).
+     * Las procesadas salen del filtro al pasar a EXPIRED, así que se itera hasta vaciar.
+     */
+    @Query(value = "{ 'status': 'ACTIVE', 'expiresAt': { $lte: ?0 }, '_id': { $nin: ?1 } }",
+            fields = "{ 'participants.userId': 1, 'expiresAt': 1 }",
+            sort = "{ 'expiresAt': 1 }")
+    List<Conversation> findExpiredBatch(Instant now, Collection<String> excludedIds, Limit limit);
+
+    /**
+     * Paso final del lote: estado EXPIRED y fecha de purga para el TTL
+     */
+    @Query("{ '_id': { $in: ?0 }, 'status': 'ACTIVE' }")
+    @Update("{ '$set': { 'status': 'EXPIRED', 'purgeAt': ?1 } }")
+    long markExpired(List<String> conversationIds, Instant purgeAt);
 
     @Query("{ 'status': 'ACTIVE', 'expiresAt': { $lte: ?0, $gt: ?1 } }")
     List<Conversation> findConversationsExpiringSoon(Instant expiresBefore, Instant expiresAfter);
@@ -0,0 +1,38 @@
+package com.near.api.modules.chat.repository;
+
+import com.near.api.modules.chat.document.Conversation.ConversationStatus;
+import com.near.api.modules.chat.document.InboxEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InboxEntryRepository extends MongoRepository<InboxEntry, String> {
+
+    // === Lecturas (índices idx_inbox_user_*) ===
+
+    Page<InboxEntry> findByUserIdOrderBySortAtDesc(UUID userId, Pageable pageable);
+
+    List<InboxEntry> findByUserIdAndStatusOrderBySortAtDesc(UUID userId, ConversationStatus status);
+
+    @Query(value = "{ 'userId': ?0, 'unreadCount': { '$gt': 0 } }", count = true)
+    long countWithUnreadMessages(UUID userId);
+
+    // === Actualizaciones ===
+
+    // Delta y no $set: un $set pisaría los $inc de mensajes llegados mientras tanto
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$inc': { 'unreadCount': ?1 } }")
+    void incrementUnreadCount(String entryId, int delta);
+
+    @Query("{ 'conversationId': { '$in': ?0 } }")
+    @Update("{ '$set': { 'status': 'EXPIRED', 'purgeAt': ?1 } }")
+    void markExpired(List<String> conversationIds, Instant purgeAt);
+}
@@ -3,6 +3,8 @@ package com.near.api.modules.chat.repository;
 import com.near.api.modules.chat.document.Message;
 import com.near.api.modules.chat.document.Message.MessageStatus;
 import com.near.api.modules.chat.document.Message.MessageType;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -31,6 +33,21 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     Page<Message> findByConversationIdOrderByCreatedAtAsc(String conversationId, Pageable pageable);
 
+    // === Paginación por cursor (createdAt, _id) — usa idx_conversation_created ===
+
+    List<Message> findByConversationIdOrderByCreatedAtDescIdDesc(String conversationId, Limit limit);
+
+    @Query(value = "{ 'conversationId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Message> findPageBefore(String conversationId, Instant createdAt, ObjectId id, Limit limit);
+
+    @Query(value = "{ 'conversationId': ?0, '$or': [ { 'createdAt': { '$gt': ?1 } }, { 'createdAt': ?1, '_id': { '$gt': ?2 } } ] }",
+            sort = "{ 'createdAt': 1, '_id': 1 }")
+    List<Message> findPageAfter(String conversationId, Instant createdAt, ObjectId id, Limit limit);
+
+    @Query("{ 'conversationId': ?0, 'statusChangedAt': { '$gt': ?1 } }")
+    List<Message> findStatusChangedSince(String conversationId, Instant since);
+
     // === Búsqueda por conversación y ID ===
 
     Optional<Message> findByIdAndConversationId(String id, String conversationId);
@@ -49,11 +66,10 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     // === Mensajes no leídos ===
 
-    @Query("{ 'conversationId': ?0, 'senderId': { $ne: ?1 }, 'status': { $ne: 'READ' } }")
-    List<Message> findUnreadMessages(String conversationId, UUID userId);
-
-    @Query(value = "{ 'conversationId': ?0, 'senderId': { $ne: ?1 }, 'status': { $ne: 'READ' } }", count = true)
-    long countUnreadMessages(String conversationId, UUID userId);
+    // Recibidos por el usuario (ni propios ni del sistema) entre dos marcas de agua de lectura
+    @Query(value = "{ 'conversationId': ?0, 'senderId': { '$nin': [?1, null] }, 'createdAt': { '$gt': ?2, '$lte': ?3 } }",
+            count = true)
+    long countReceivedBetween(String conversationId, UUID userId, Instant from, Instant upTo);
 
     // === Media bloqueada ===
 
@@ -66,25 +82,17 @@ public interface MessageRepository extends MongoRepository<Message, String> {
     // === Actualizaciones de estado ===
 
     @Query("{ '_id': ?0 }")
-    @Update("{ '$set': { 'status': 'DELIVERED', 'deliveredAt': ?1 } }")
+    @Update("{ '$set': { 'status': 'DELIVERED', 'deliveredAt': ?1, 'statusChangedAt': ?1 } }")
     void markAsDelivered(String messageId, Instant deliveredAt);
 
-    @Query("{ '_id': ?0 }")
-    @Update("{ '$set': { 'status': 'READ', 'readAt': ?1 } }")
-    void markAsRead(String messageId, Instant readAt);
-
-    @Query("{ 'conversationId': ?0, 'senderId': { $ne: ?1 }, 'status': { $ne: 'READ' } }")
-    @Update("{ '$set': { 'status': 'READ', 'readAt': ?2 } }")
-    void markAllAsRead(String conversationId, UUID userId, Instant readAt);
-
     @Query("{ 'conversationId': ?0, 'senderId': { $ne: ?1 }, 'status': 'SENT' }")
-    @Update("{ '$set': { 'status': 'DELIVERED', 'deliveredAt': ?2 } }")
+    @Update("{ '$set': { 'status': 'DELIVERED', 'deliveredAt': ?2, 'statusChangedAt': ?2 } }")
     void markAllAsDelivered(String conversationId, UUID userId, Instant deliveredAt);
 
     // === Desbloquear media ===
 
     @Query("{ '_id': ?0 }")
-    @Update("{ '$set': { 'content.media.lockStatus': 'UNLOCKED', 'content.media.unlockedBy': ?1, 'content.media.unlockedAt': ?2, 'content.media.unlockTransactionId': ?3 } }")
+    @Update("{ '$set': { 'content.media.lockStatus': 'UNLOCKED', 'content.media.unlockedBy': ?1, 'content.media.unlockedAt': ?2, 'content.media.unlockTransactionId': ?3, 'statusChangedAt': ?2 } }")
     void unlockMedia(String messageId, UUID unlockedBy, Instant unlockedAt, UUID transactionId);
 
     // === Contadores ===
@@ -117,4 +125,14 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     @Query("{ 'conversationId': ?0, 'content.media.publicId': { $exists: true } }")
     List<Message> findMessagesWithMediaByConversationId(String conversationId);
+
+    @Query(value = "{ 'conversationId': { $in: ?0 }, 'content.media.publicId': { $exists: true } }",
+            fields = "{ 'conversationId': 1, 'content.media.publicId': 1, 'content.media.mediaType': 1 }")
+    List<Message> findMediaPublicIdsByConversationIdIn(List<String> conversationIds);
+
+    // === Purga (TTL sobre purge_at) ===
+
+    @Query("{ 'conversationId': { $in: ?0 } }")
+    @Update("{ '$set': { 'purgeAt': ?1 } }")
+    long schedulePurge(List<String> conversationIds, Instant purgeAt);
 }
\ No newline at end of file
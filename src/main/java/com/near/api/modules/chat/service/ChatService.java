@@ -7,6 +7,8 @@ import com.near.api.modules.chat.dto.request.SendMessageRequest;
 import com.near.api.modules.chat.dto.response.ConversationListResponse;
 import com.near.api.modules.chat.dto.response.ConversationResponse;
 import com.near.api.modules.chat.dto.response.MessageResponse;
+import com.near.api.modules.chat.dto.response.MessageSyncResponse;
+import com.near.api.shared.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -72,12 +74,24 @@ public interface ChatService {
     Page<MessageResponse> getMessages(String conversationId, UUID userId, Pageable pageable);
 
     /**
-     * Marca todos los mensajes de una conversación como leídos
+     * Historial por cursor: mensajes anteriores a "before" (o los más recientes si es null),
+     * del más nuevo al más antiguo
+     */
+    CursorPage<MessageResponse> getMessageHistory(String conversationId, UUID userId, String before, int size);
+
+    /**
+     * Sincronización delta: mensajes posteriores a "after" y cambios de estado desde entonces
+     */
+    MessageSyncResponse syncMessages(String conversationId, UUID userId, String after, int size);
+
+    /**
+     * Marca todos los mensajes de una conversación como leídos.
+     * Solo avanza la marca de agua del participante; se persiste por lotes (ReadReceiptAggregator)
      */
     void markConversationAsRead(String conversationId, UUID userId);
 
     /**
-     * Marca un mensaje específico como leído
+     * Marca un mensaje específico (y todos los anteriores) como leído
      */
     void markMessageAsRead(String conversationId, String messageId, UUID userId);
 
@@ -1,7 +1,7 @@
 package com.near.api.modules.chat.service;
 
-import com.near.api.modules.auth.entity.User;
-import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.auth.dto.UserSnapshot;
+import com.near.api.modules.auth.service.UserSnapshotCache;
 import com.near.api.modules.chat.document.Conversation;
 import com.near.api.modules.chat.document.Conversation.ConversationStatus;
 import com.near.api.modules.chat.document.Conversation.ParticipantRole;
@@ -15,19 +15,34 @@ import com.near.api.modules.chat.dto.request.SendMessageRequest;
 import com.near.api.modules.chat.dto.response.ConversationListResponse;
 import com.near.api.modules.chat.dto.response.ConversationResponse;
 import com.near.api.modules.chat.dto.response.MessageResponse;
+import com.near.api.modules.chat.dto.response.MessageSyncResponse;
 import com.near.api.modules.chat.repository.ConversationRepository;
 import com.near.api.modules.chat.repository.MessageRepository;
+import com.near.api.modules.media.dto.MediaDeletionRequest;
+import com.near.api.modules.media.entity.MediaDeletionTask.MediaSource;
+import com.near.api.modules.media.service.MediaDeletionService;
+import com.near.api.modules.media.storage.MediaResourceType;
 import com.near.api.modules.wallet.dto.response.TransactionResponse;
 import com.near.api.modules.wallet.service.WalletService;
+import com.near.api.shared.dto.CursorPage;
 import com.near.api.shared.exception.BadRequestException;
 import com.near.api.shared.exception.ResourceNotFoundException;
 import com.near.api.shared.exception.UnauthorizedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -37,7 +52,11 @@ import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import com.near.api.modules.notification.service.NotificationService;
@@ -52,11 +71,17 @@ public class ChatServiceImpl implements ChatService {
 
     private final ConversationRepository conversationRepository;
     private final MessageRepository messageRepository;
-    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
     private final WalletService walletService;
     private final SimpMessagingTemplate messagingTemplate;
     private final NotificationService notificationService;
     private final RequestMediaRepository requestMediaRepository;
+    private final ConversationCache conversationCache;
+    private final ChatSessionRegistry chatSessionRegistry;
+    private final ReadReceiptAggregator readReceiptAggregator;
+    private final InboxService inboxService;
+    private final MediaDeletionService mediaDeletionService;
+    private final MongoTemplate mongoTemplate;
 
     // Duración de la conversación: 5 horas
     private static final Duration CONVERSATION_DURATION = Duration.ofHours(5);
@@ -64,6 +89,18 @@ public class ChatServiceImpl implements ChatService {
     // Tiempo antes de expirar para notificar: 1 hora
     private static final Duration EXPIRATION_WARNING_TIME = Duration.ofHours(1);
 
+    // Conversaciones por lote en el job de expiración
+    @Value("${chat.expiry.batch-size:200}")
+    private int expiryBatchSize;
+
+    // Tiempo que una conversación expirada se conserva antes de que el TTL la borre
+    @Value("${chat.expiry.purge-delay-minutes:10}")
+    private long expiryPurgeDelayMinutes;
+
+    // Tamaño máximo de página para historial por cursor y sincronización
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_SYNC_PAGE_SIZE = 500;
+
     // === Conversaciones ===
 
     @Override
@@ -75,138 +112,101 @@ public class ChatServiceImpl implements ChatService {
             throw new BadRequestException("Ya existe una conversación para esta request");
         }
 
-        // Obtener usuarios
-        User requester = userRepository.findById(requesterId)
+        // Obtener usuarios (snapshots ya cargados en este request o cacheados)
+        UserSnapshot requester = userSnapshotCache.find(requesterId)
                 .orElseThrow(() -> new ResourceNotFoundException("Requester no encontrado"));
-        User responder = userRepository.findById(responderId)
+        UserSnapshot responder = userSnapshotCache.find(responderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Responder no encontrado"));
 
         // Calcular expiración
         Instant now = Instant.now();
         Instant expiresAt = now.plus(CONVERSATION_DURATION);
 
-        // Crear participantes
+        // El ID se genera aquí para poder armar los mensajes iniciales antes de insertar nada
+        String conversationId = new ObjectId().toHexString();
+
+        // Mensajes iniciales: sistema + media entregada por el responder (en ese orden)
+        Message systemMessage = buildSystemMessage(conversationId, SystemEventType.CONVERSATION_STARTED,
+                "La conversación estará disponible por 5 horas", expiresAt);
+        List<Message> mediaMessages = buildDeliveryMediaMessages(conversationId, requestId, responderId, expiresAt);
+
+        List<Message> initialMessages = new ArrayList<>(mediaMessages.size() + 1);
+        initialMessages.add(systemMessage);
+        initialMessages.addAll(mediaMessages);
+
+        // Crear participantes (el requester arranca con la media del delivery sin leer)
         List<Conversation.Participant> participants = new ArrayList<>();
 
         participants.add(Conversation.Participant.builder()
                 .userId(requesterId)
                 .role(ParticipantRole.REQUESTER)
-                .isAnonymous(requester.getIsAnonymous())
-                .displayName(getDisplayName(requester))
-                .profilePhotoUrl(requester.getIsAnonymous() ? null : requester.getProfilePhotoUrl())
-                .unreadCount(0)
+                .isAnonymous(requester.isAnonymous())
+                .displayName(requester.getDisplayName())
+                .profilePhotoUrl(requester.isAnonymous() ? null : requester.getProfilePhotoUrl())
+                .unreadCount(mediaMessages.size())
                 .tipsEnabled(true)
                 .build());
 
         participants.add(Conversation.Participant.builder()
                 .userId(responderId)
                 .role(ParticipantRole.RESPONDER)
-                .isAnonymous(responder.getIsAnonymous())
-                .displayName(getDisplayName(responder))
-                .profilePhotoUrl(responder.getIsAnonymous() ? null : responder.getProfilePhotoUrl())
+                .isAnonymous(responder.isAnonymous())
+                .displayName(responder.getDisplayName())
+                .profilePhotoUrl(responder.isAnonymous() ? null : responder.getProfilePhotoUrl())
                 .unreadCount(0)
                 .tipsEnabled(true)
                 .build());
 
-        // Crear metadata
+        // Crear metadata con los contadores ya agregados
         Conversation.Metadata metadata = Conversation.Metadata.builder()
-                .totalMessages(0)
-                .totalMedia(0)
+                .totalMessages(mediaMessages.size())
+                .totalMedia(mediaMessages.size())
                 .totalNearsTransferred(0)
                 .originalRewardNears(originalRewardNears)
                 .build();
 
+        Conversation.LastMessage lastMessage = mediaMessages.isEmpty()
+                ? null
+                : buildLastMessage(mediaMessages.get(mediaMessages.size() - 1), responderId);
+
         // Crear conversación
         Conversation conversation = Conversation.builder()
+                .id(conversationId)
                 .requestId(requestId)
                 .participants(participants)
                 .status(ConversationStatus.ACTIVE)
+                .lastMessage(lastMessage)
                 .metadata(metadata)
+                .createdAt(now) // Con ID asignado la auditoría la considera existente y no setea created_at
                 .expiresAt(expiresAt)
                 .build();
 
-        conversation = conversationRepository.save(conversation);
-
-        log.info("Conversación creada: {} para request {} entre {} y {}",
-                conversation.getId(), requestId, requesterId, responderId);
-
-        // Enviar mensaje del sistema
-        sendSystemMessage(conversation.getId(), SystemEventType.CONVERSATION_STARTED,
-                "La conversación estará disponible por 5 horas");
-
+        // Un insertMany para los mensajes y un insert para la conversación.
+        // Los mensajes van primero: si fallan, no queda una conversación con contadores inflados.
+        messageRepository.insert(initialMessages);
         try {
-            List<RequestMedia> requestMediaList = requestMediaRepository.findByRequestIdOrderByCreatedAtAsc(requestId);
-
-            for (RequestMedia media : requestMediaList) {
-                // Determinar tipo de mensaje según tipo de media
-                MessageType msgType = media.getMediaType() == RequestMedia.MediaType.VIDEO
-                        ? MessageType.VIDEO
-                        : MessageType.IMAGE;
-
-                // Generar thumbnail si no existe
-                String thumbnailUrl = media.getThumbnailUrl();
-                if (thumbnailUrl == null && media.getUrl() != null) {
-                    if (msgType == MessageType.IMAGE) {
-                        thumbnailUrl = media.getUrl().replace("/upload/", "/upload/c_thumb,w_400,h_400/");
-                    } else {
-                        thumbnailUrl = media.getUrl()
-                                .replace("/upload/", "/upload/c_thumb,w_400/")
-                                .replace(".mp4", ".jpg")
-                                .replace(".mov", ".jpg");
-                    }
-                }
-
-                // Crear objeto Media para el mensaje
-                Message.Media messageMedia = Message.Media.builder()
-                        .url(media.getUrl())
-                        .publicId(media.getPublicId())
-                        .thumbnailUrl(thumbnailUrl)
-                        .blurredUrl(null) // No blurred — es contenido gratuito del delivery
-                        .mediaType(msgType == MessageType.IMAGE
-                                ? Message.MediaType.IMAGE
-                                : Message.MediaType.VIDEO)
-                        .sizeBytes(media.getFileSizeBytes())
-                        .width(media.getWidth())
-                        .height(media.getHeight())
-                        .durationSeconds(media.getDurationSeconds())
-                        .priceNears(0)
-                        .lockStatus(MediaLockStatus.UNLOCKED)
-                        .build();
-
-                // Crear el mensaje — el sender es el RESPONDER (quien entregó el contenido)
-                Message mediaMessage = Message.builder()
-                        .conversationId(conversation.getId())
-                        .senderId(responderId)
-                        .messageType(msgType)
-                        .content(Message.Content.builder()
-                                .text(null)
-                                .media(messageMedia)
-                                .build())
-                        .status(MessageStatus.SENT)
-                        .hasTip(false)
-                        .tipAmount(0)
-                        .expiresAt(conversation.getExpiresAt())
-                        .build();
-
-                messageRepository.save(mediaMessage);
+            conversation = conversationRepository.insert(conversation);
+        } catch (RuntimeException e) {
+            // Sin conversación nadie les setea purge_at (el TTL no los alcanza): se borran aquí
+            discardOrphanMessages(conversationId);
+            throw e;
+        }
+        conversationCache.put(conversation);
+        inboxService.onConversationCreated(conversation);
 
-                // Actualizar metadata de la conversación
-                updateConversationAfterMessage(conversation, mediaMessage, responderId);
-                conversationRepository.incrementMediaCount(conversation.getId());
-            }
+        log.info("Conversación creada: {} para request {} entre {} y {} ({} archivos multimedia iniciales)",
+                conversation.getId(), requestId, requesterId, responderId, mediaMessages.size());
 
-            if (!requestMediaList.isEmpty()) {
-                log.info("Se insertaron {} archivos multimedia de la request como mensajes iniciales en conversación {}",
-                        requestMediaList.size(), conversation.getId());
-            }
+        return mapToConversationResponse(conversation, requesterId);
+    }
 
-        } catch (Exception e) {
-            log.error("Error insertando media de la request en la conversación {}: {}",
-                    conversation.getId(), e.getMessage());
-            // No lanzamos excepción para no afectar la creación de la conversación
+    private void discardOrphanMessages(String conversationId) {
+        try {
+            messageRepository.deleteByConversationId(conversationId);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron borrar los mensajes huérfanos de la conversación {}: {}",
+                    conversationId, e.getMessage());
         }
-
-        return mapToConversationResponse(conversation, requesterId);
     }
 
     @Override
@@ -231,27 +231,18 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public Page<ConversationListResponse> getMyConversations(UUID userId, Pageable pageable) {
-        Page<Conversation> conversations = conversationRepository.findByParticipantUserId(userId, pageable);
-
-        List<ConversationListResponse> responses = conversations.getContent().stream()
-                .map(conv -> mapToConversationListResponse(conv, userId))
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(responses, pageable, conversations.getTotalElements());
+        // Lectura indexada del inbox desnormalizado, ya ordenado por último mensaje
+        return inboxService.getInbox(userId, pageable);
     }
 
     @Override
     public List<ConversationListResponse> getActiveConversations(UUID userId) {
-        List<Conversation> conversations = conversationRepository.findActiveConversationsByUserId(userId);
-
-        return conversations.stream()
-                .map(conv -> mapToConversationListResponse(conv, userId))
-                .collect(Collectors.toList());
+        return inboxService.getActiveInbox(userId);
     }
 
     @Override
     public long getUnreadConversationsCount(UUID userId) {
-        return conversationRepository.countWithUnreadMessages(userId);
+        return inboxService.countUnread(userId);
     }
 
     // === Mensajes ===
@@ -407,7 +398,6 @@ public class ChatServiceImpl implements ChatService {
 
         // Actualizar conversación
         updateConversationAfterMessage(conversation, message, senderId);
-        conversationRepository.incrementMediaCount(conversationId);
 
         // Notificar vía WebSocket
         MessageResponse response = mapToMessageResponse(message, conversation, senderId);
@@ -531,7 +521,7 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public Page<MessageResponse> getMessages(String conversationId, UUID userId, Pageable pageable) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
         validateParticipant(conversation, userId);
@@ -541,41 +531,122 @@ public class ChatServiceImpl implements ChatService {
         List<MessageResponse> responses = messages.getContent().stream()
                 .map(msg -> mapToMessageResponse(msg, conversation, userId))
                 .collect(Collectors.toList());
+        applyReadWatermarks(responses, loadReadWatermarks(conversationId));
 
         return new PageImpl<>(responses, pageable, messages.getTotalElements());
     }
 
     @Override
-    @Transactional
-    public void markConversationAsRead(String conversationId, UUID userId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+    public CursorPage<MessageResponse> getMessageHistory(String conversationId, UUID userId, String before, int size) {
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
         validateParticipant(conversation, userId);
 
-        Instant now = Instant.now();
+        size = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+
+        // Se pide uno de más para saber si hay otra página sin hacer count
+        Limit limit = Limit.of(size + 1);
+        List<Message> messages;
+        if (before == null || before.isBlank()) {
+            messages = messageRepository.findByConversationIdOrderByCreatedAtDescIdDesc(conversationId, limit);
+        } else {
+            MessageCursor cursor = MessageCursor.decode(before);
+            messages = messageRepository.findPageBefore(conversationId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        boolean hasMore = messages.size() > size;
+        if (hasMore) {
+            messages = messages.subList(0, size);
+        }
+
+        List<MessageResponse> responses = messages.stream()
+                .map(msg -> mapToMessageResponse(msg, conversation, userId))
+                .collect(Collectors.toList());
+        applyReadWatermarks(responses, loadReadWatermarks(conversationId));
+
+        return CursorPage.<MessageResponse>builder()
+                .content(responses)
+                .nextCursor(hasMore ? MessageCursor.of(messages.get(messages.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    public MessageSyncResponse syncMessages(String conversationId, UUID userId, String after, int size) {
+        Conversation conversation = conversationCache.get(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
+
+        validateParticipant(conversation, userId);
+
+        MessageCursor cursor = MessageCursor.decode(after);
+        size = Math.max(1, Math.min(size, MAX_SYNC_PAGE_SIZE));
+
+        List<Message> newMessages = messageRepository.findPageAfter(
+                conversationId, cursor.getCreatedAt(), cursor.getId(), Limit.of(size + 1));
+
+        boolean hasMore = newMessages.size() > size;
+        if (hasMore) {
+            newMessages = newMessages.subList(0, size);
+        }
+
+        // Cambios de estado posteriores al cursor (entrega, desbloqueo) sobre mensajes que el
+        // cliente ya tenía; los nuevos ya viajan con su estado actual
+        Set<String> newIds = newMessages.stream().map(Message::getId).collect(Collectors.toSet());
+        List<MessageResponse> updated = messageRepository.findStatusChangedSince(conversationId, cursor.getCreatedAt())
+                .stream()
+                .filter(msg -> !newIds.contains(msg.getId()))
+                .map(msg -> mapToMessageResponse(msg, conversation, userId))
+                .collect(Collectors.toList());
+
+        List<MessageResponse> messages = newMessages.stream()
+                .map(msg -> mapToMessageResponse(msg, conversation, userId))
+                .collect(Collectors.toList());
 
-        // Marcar todos los mensajes como leídos
-        messageRepository.markAllAsRead(conversationId, userId, now);
+        // Las lecturas viajan como marcas de agua: el cliente marca como leído todo lo anterior
+        Map<UUID, Instant> readWatermarks = loadReadWatermarks(conversationId);
+        applyReadWatermarks(messages, readWatermarks);
+
+        // Sin mensajes nuevos el cursor no avanza
+        String nextCursor = newMessages.isEmpty()
+                ? after
+                : MessageCursor.of(newMessages.get(newMessages.size() - 1)).encode();
+
+        return MessageSyncResponse.builder()
+                .messages(messages)
+                .updated(updated)
+                .readUpTo(readWatermarks)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
 
-        // Resetear contador de no leídos
-        conversationRepository.markAsRead(conversationId, userId, now);
+    @Override
+    public void markConversationAsRead(String conversationId, UUID userId) {
+        Conversation conversation = conversationCache.get(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
+
+        validateParticipant(conversation, userId);
 
-        // Notificar al otro usuario que los mensajes fueron leídos
-        notifyMessagesRead(conversationId, userId);
+        // Se agrupa con las demás lecturas y se persiste/notifica en el próximo flush
+        readReceiptAggregator.record(conversationId, userId, Instant.now());
 
         log.debug("Conversación {} marcada como leída por usuario {}", conversationId, userId);
     }
 
     @Override
-    @Transactional
     public void markMessageAsRead(String conversationId, String messageId, UUID userId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
         validateParticipant(conversation, userId);
 
-        messageRepository.markAsRead(messageId, Instant.now());
+        Message message = messageRepository.findByIdAndConversationId(messageId, conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Mensaje no encontrado"));
+
+        // Leer un mensaje implica haber leído todos los anteriores
+        readReceiptAggregator.record(conversationId, userId,
+                message.getCreatedAt() != null ? message.getCreatedAt() : Instant.now());
     }
 
     // === Configuración ===
@@ -583,12 +654,13 @@ public class ChatServiceImpl implements ChatService {
     @Override
     @Transactional
     public void updateTipsEnabled(String conversationId, UUID userId, Boolean enabled) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
         validateParticipant(conversation, userId);
 
         conversationRepository.updateTipsEnabled(conversationId, userId, enabled);
+        conversationCache.evict(conversationId);
 
         log.info("Usuario {} {} propinas en conversación {}",
                 userId, enabled ? "habilitó" : "deshabilitó", conversationId);
@@ -599,24 +671,10 @@ public class ChatServiceImpl implements ChatService {
     @Override
     @Transactional
     public MessageResponse sendSystemMessage(String conversationId, SystemEventType eventType, String eventData) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
-        Message message = Message.builder()
-                .conversationId(conversationId)
-                .senderId(null) // Mensajes del sistema no tienen sender
-                .messageType(MessageType.SYSTEM)
-                .content(Message.Content.builder()
-                        .systemEvent(Message.SystemEvent.builder()
-                                .eventType(eventType)
-                                .eventData(eventData)
-                                .build())
-                        .build())
-                .status(MessageStatus.SENT)
-                .hasTip(false)
-                .tipAmount(0)
-                .expiresAt(conversation.getExpiresAt())
-                .build();
+        Message message = buildSystemMessage(conversationId, eventType, eventData, conversation.getExpiresAt());
 
         message = messageRepository.save(message);
 
@@ -629,36 +687,107 @@ public class ChatServiceImpl implements ChatService {
 
     // === Tareas programadas ===
 
+    /**
+     * Expira por lotes acotados (nunca carga todo el backlog). Por lote:
+     * 1. Borrado de media de Cloudinary encolado (idempotente, lo ejecuta MediaDeletionService)
+     * 2. Mensajes del sistema con un upsert por (conversación, CONVERSATION_EXPIRED): idempotente
+     * 3. Purga programada de mensajes e inbox (updateMany)
+     * 4. Estado EXPIRED + purgeAt de las conversaciones: marca el lote como procesado
+     * El TTL solo actúa sobre purge_at, que se setea en los pasos 3-4, por lo que un
+     * documento nunca se borra antes de que el job lo haya procesado. Si el job se cae
+     * a mitad de un lote, las conversaciones siguen ACTIVE y se reprocesan sin duplicar
+     * nada. Un lote que falla se saltea en esta ejecución y se continúa con los siguientes.
+     */
     @Override
     @Scheduled(fixedRate = 60000) // Cada minuto
-    @Transactional
     public void expireOldConversations() {
-        List<Conversation> expiredConversations = conversationRepository.findExpiredConversations(Instant.now());
+        Instant now = Instant.now();
+        Instant purgeAt = now.plus(Duration.ofMinutes(expiryPurgeDelayMinutes));
+        int total = 0;
+
+        // Lotes fallidos: siguen ACTIVE, se excluyen para no volver a leerlos en esta ejecución
+        Set<String> failedIds = new HashSet<>();
+
+        List<Conversation> batch;
+        do {
+            batch = conversationRepository.findExpiredBatch(now, failedIds, Limit.of(expiryBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
 
-        for (Conversation conversation : expiredConversations) {
             try {
-                // Actualizar estado
-                conversationRepository.updateStatus(conversation.getId(), ConversationStatus.EXPIRED);
+                total += expireBatch(batch, purgeAt);
+            } catch (Exception e) {
+                // Se reintenta en la próxima ejecución (siguen ACTIVE)
+                log.error("Error expirando lote de {} conversaciones: {}", batch.size(), e.getMessage());
+                batch.forEach(conversation -> failedIds.add(conversation.getId()));
+            }
+        } while (batch.size() == expiryBatchSize);
 
-                // Enviar mensaje del sistema
-                sendSystemMessage(conversation.getId(), SystemEventType.CONVERSATION_EXPIRED,
-                        "La conversación ha expirado");
+        if (total > 0) {
+            log.info("Se expiraron {} conversaciones", total);
+        }
+    }
 
-                // Notificar a los participantes
-                notifyConversationExpired(conversation);
+    private int expireBatch(List<Conversation> batch, Instant purgeAt) {
+        List<String> conversationIds = batch.stream().map(Conversation::getId).collect(Collectors.toList());
 
-                // Limpiar recursos de Cloudinary
-                cleanupCloudinaryResources(conversation.getId());
+        // 1. Encolar el borrado de la media en Cloudinary (antes de que el TTL borre los mensajes)
+        cleanupCloudinaryResources(messageRepository.findMediaPublicIdsByConversationIdIn(conversationIds));
 
-                log.info("Conversación {} expirada", conversation.getId());
-            } catch (Exception e) {
-                log.error("Error expirando conversación {}: {}", conversation.getId(), e.getMessage());
+        // 2. Mensajes del sistema (ya con su purga programada); si un intento anterior ya los
+        //    insertó, el upsert no hace nada y se reutilizan los existentes
+        Map<String, Message> systemMessages = upsertExpiredMessages(batch, purgeAt);
+
+        // 3. Purga de mensajes e inbox junto con la conversación
+        messageRepository.schedulePurge(conversationIds, purgeAt);
+        inboxService.onConversationsExpired(conversationIds, purgeAt);
+
+        // 4. Estado final (set-based)
+        conversationRepository.markExpired(conversationIds, purgeAt);
+
+        // Efectos en memoria / WebSocket
+        for (Conversation conversation : batch) {
+            conversationCache.evict(conversation.getId());
+            chatSessionRegistry.revokeConversation(conversation.getId());
+            Message systemMessage = systemMessages.get(conversation.getId());
+            if (systemMessage != null) {
+                notifyNewMessage(conversation.getId(), mapToMessageResponse(systemMessage, conversation, null));
             }
+            notifyConversationExpired(conversation);
         }
 
-        if (!expiredConversations.isEmpty()) {
-            log.info("Se expiraron {} conversaciones", expiredConversations.size());
+        log.debug("Lote de {} conversaciones expirado", batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Un mensaje CONVERSATION_EXPIRED por conversación: $setOnInsert filtrando por
+     * (conversationId, eventType), respaldado por el índice único parcial
+     * uq_conversation_expired_event. Devuelve los mensajes por conversación.
+     */
+    private Map<String, Message> upsertExpiredMessages(List<Conversation> batch, Instant purgeAt) {
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+        for (Conversation conversation : batch) {
+            Message message = buildSystemMessage(conversation.getId(), SystemEventType.CONVERSATION_EXPIRED,
+                    "La conversación ha expirado", conversation.getExpiresAt());
+            message.setCreatedAt(now);
+            message.setPurgeAt(purgeAt);
+
+            Document document = new Document();
+            mongoTemplate.getConverter().write(message, document);
+            bulk.upsert(Query.query(Criteria.where("conversationId").is(conversation.getId())
+                            .and("content.systemEvent.eventType").is(SystemEventType.CONVERSATION_EXPIRED)),
+                    Update.fromDocument(new Document("$setOnInsert", document)));
         }
+        bulk.execute();
+
+        List<String> conversationIds = batch.stream().map(Conversation::getId).collect(Collectors.toList());
+        Query existing = Query.query(Criteria.where("conversationId").in(conversationIds)
+                .and("content.systemEvent.eventType").is(SystemEventType.CONVERSATION_EXPIRED));
+        return mongoTemplate.find(existing, Message.class).stream()
+                .collect(Collectors.toMap(Message::getConversationId, message -> message, (first, second) -> first));
     }
 
     @Override
@@ -688,14 +817,14 @@ public class ChatServiceImpl implements ChatService {
 
     @Override
     public boolean isParticipant(String conversationId, UUID userId) {
-        return conversationRepository.findById(conversationId)
+        return conversationCache.get(conversationId)
                 .map(conv -> conv.isParticipant(userId))
                 .orElse(false);
     }
 
     @Override
     public boolean isConversationActive(String conversationId) {
-        return conversationRepository.findById(conversationId)
+        return conversationCache.get(conversationId)
                 .map(conv -> conv.getStatus() == ConversationStatus.ACTIVE && !conv.isExpired())
                 .orElse(false);
     }
@@ -703,7 +832,7 @@ public class ChatServiceImpl implements ChatService {
     // === Métodos privados auxiliares ===
 
     private Conversation getActiveConversation(String conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = conversationCache.get(conversationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversación no encontrada"));
 
         if (conversation.getStatus() != ConversationStatus.ACTIVE) {
@@ -730,32 +859,161 @@ public class ChatServiceImpl implements ChatService {
                 .orElseThrow(() -> new ResourceNotFoundException("Otro participante no encontrado"));
     }
 
-    private String getDisplayName(User user) {
-        if (user.getIsAnonymous()) {
-            return "Anónimo " + user.getAnonymousCode();
+    /**
+     * Marcas de agua "leído hasta" de cada participante
+     */
+    private Map<UUID, Instant> loadReadWatermarks(String conversationId) {
+        Map<UUID, Instant> watermarks = new HashMap<>();
+        conversationRepository.findReadWatermarks(conversationId).ifPresent(conversation ->
+                conversation.getParticipants().forEach(p -> {
+                    if (p.getLastReadAt() != null) {
+                        watermarks.put(p.getUserId(), p.getLastReadAt());
+                    }
+                }));
+        return watermarks;
+    }
+
+    /**
+     * El estado READ se deriva de la marca de agua del destinatario (el otro participante)
+     */
+    private void applyReadWatermarks(List<MessageResponse> responses, Map<UUID, Instant> watermarks) {
+        for (MessageResponse response : responses) {
+            if (response.getSenderId() == null || response.getCreatedAt() == null
+                    || response.getStatus() == MessageResponse.MessageStatus.READ) {
+                continue;
+            }
+            boolean readByRecipient = watermarks.entrySet().stream()
+                    .anyMatch(entry -> !entry.getKey().equals(response.getSenderId())
+                            && !entry.getValue().isBefore(response.getCreatedAt()));
+            if (readByRecipient) {
+                response.setStatus(MessageResponse.MessageStatus.READ);
+            }
         }
-        return user.getFullName() != null ? user.getFullName() : "Usuario";
     }
 
-    private void updateConversationAfterMessage(Conversation conversation, Message message, UUID senderId) {
-        // Actualizar último mensaje
-        Conversation.LastMessage lastMessage = Conversation.LastMessage.builder()
+    /**
+     * Mensajes de la media entregada con la request (contenido gratuito, enviado por el responder).
+     * Si algo falla se devuelve lo que haya: no debe impedir crear la conversación.
+     */
+    private List<Message> buildDeliveryMediaMessages(String conversationId, UUID requestId,
+                                                     UUID responderId, Instant expiresAt) {
+        List<Message> messages = new ArrayList<>();
+
+        try {
+            List<RequestMedia> requestMediaList = requestMediaRepository.findByRequestIdOrderByCreatedAtAsc(requestId);
+
+            for (RequestMedia media : requestMediaList) {
+                // Determinar tipo de mensaje según tipo de media
+                MessageType msgType = media.getMediaType() == RequestMedia.MediaType.VIDEO
+                        ? MessageType.VIDEO
+                        : MessageType.IMAGE;
+
+                // Generar thumbnail si no existe
+                String thumbnailUrl = media.getThumbnailUrl();
+                if (thumbnailUrl == null && media.getUrl() != null) {
+                    if (msgType == MessageType.IMAGE) {
+                        thumbnailUrl = media.getUrl().replace("/upload/", "/upload/c_thumb,w_400,h_400/");
+                    } else {
+                        thumbnailUrl = media.getUrl()
+                                .replace("/upload/", "/upload/c_thumb,w_400/")
+                                .replace(".mp4", ".jpg")
+                                .replace(".mov", ".jpg");
+                    }
+                }
+
+                // Crear objeto Media para el mensaje
+                Message.Media messageMedia = Message.Media.builder()
+                        .url(media.getUrl())
+                        .publicId(media.getPublicId())
+                        .thumbnailUrl(thumbnailUrl)
+                        .blurredUrl(null) // No blurred — es contenido gratuito del delivery
+                        .mediaType(msgType == MessageType.IMAGE
+                                ? Message.MediaType.IMAGE
+                                : Message.MediaType.VIDEO)
+                        .sizeBytes(media.getFileSizeBytes())
+                        .width(media.getWidth())
+                        .height(media.getHeight())
+                        .durationSeconds(media.getDurationSeconds())
+                        .priceNears(0)
+                        .lockStatus(MediaLockStatus.UNLOCKED)
+                        .build();
+
+                // Crear el mensaje — el sender es el RESPONDER (quien entregó el contenido)
+                messages.add(Message.builder()
+                        .conversationId(conversationId)
+                        .senderId(responderId)
+                        .messageType(msgType)
+                        .content(Message.Content.builder()
+                                .text(null)
+                                .media(messageMedia)
+                                .build())
+                        .status(MessageStatus.SENT)
+                        .hasTip(false)
+                        .tipAmount(0)
+                        .expiresAt(expiresAt)
+                        .build());
+            }
+
+        } catch (Exception e) {
+            log.error("Error preparando la media de la request {} para la conversación: {}",
+                    requestId, e.getMessage());
+            // No lanzamos excepción para no afectar la creación de la conversación
+        }
+
+        return messages;
+    }
+
+    private Message buildSystemMessage(String conversationId, SystemEventType eventType,
+                                       String eventData, Instant expiresAt) {
+        return Message.builder()
+                .conversationId(conversationId)
+                .senderId(null) // Mensajes del sistema no tienen sender
+                .messageType(MessageType.SYSTEM)
+                .content(Message.Content.builder()
+                        .systemEvent(Message.SystemEvent.builder()
+                                .eventType(eventType)
+                                .eventData(eventData)
+                                .build())
+                        .build())
+                .status(MessageStatus.SENT)
+                .hasTip(false)
+                .tipAmount(0)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private Conversation.LastMessage buildLastMessage(Message message, UUID senderId) {
+        return Conversation.LastMessage.builder()
                 .contentPreview(message.getPreview(100))
                 .messageType(Conversation.MessageType.valueOf(message.getMessageType().name()))
                 .senderId(senderId)
                 .sentAt(message.getCreatedAt() != null ? message.getCreatedAt() : Instant.now())
                 .build();
+    }
 
-        conversationRepository.updateLastMessage(conversation.getId(), lastMessage, Instant.now());
+    /**
+     * Actualiza la conversación tras guardar un mensaje con un único update
+     * (último mensaje, no leídos, total de mensajes/media y nears de propina).
+     */
+    private void updateConversationAfterMessage(Conversation conversation, Message message, UUID senderId) {
+        Conversation.LastMessage lastMessage = buildLastMessage(message, senderId);
 
-        // Incrementar contador de no leídos para el otro participante
         Conversation.Participant recipient = getOtherParticipant(conversation, senderId);
-        conversationRepository.incrementUnreadCount(conversation.getId(), recipient.getUserId());
 
-        // Actualizar nears transferidos si hubo propina
-        if (message.getHasTip() && message.getTipAmount() > 0) {
-            conversationRepository.addNearsTransferred(conversation.getId(), message.getTipAmount());
-        }
+        boolean isMedia = message.getMessageType() == MessageType.IMAGE
+                || message.getMessageType() == MessageType.VIDEO;
+        int nearsIncrement = message.getHasTip() && message.getTipAmount() > 0 ? message.getTipAmount() : 0;
+
+        conversationRepository.applyMessageSent(
+                conversation.getId(),
+                recipient.getUserId(),
+                lastMessage,
+                Instant.now(),
+                isMedia ? 1 : 0,
+                nearsIncrement
+        );
+
+        inboxService.onMessageSent(conversation.getId(), senderId, recipient.getUserId(), lastMessage);
     }
 
     private UUID processsTipTransfer(UUID senderId, UUID recipientId, Integer amount, String conversationId) {
@@ -779,19 +1037,23 @@ public class ChatServiceImpl implements ChatService {
         );
         return response.getId();
     }
-    private void cleanupCloudinaryResources(String conversationId) {
-        // Obtener todos los mensajes con media de esta conversación
-        List<Message> mediaMessages = messageRepository.findMessagesWithMediaByConversationId(conversationId);
-
+    /**
+     * Encola la media para el worker de borrado (sin I/O remoto en el job de expiración)
+     */
+    private void cleanupCloudinaryResources(List<Message> mediaMessages) {
+        List<MediaDeletionRequest> requests = new ArrayList<>();
         for (Message message : mediaMessages) {
             if (message.getContent() != null && message.getContent().getMedia() != null) {
-                String publicId = message.getContent().getMedia().getPublicId();
-                if (publicId != null) {
-                    // TODO: Llamar a Cloudinary API para eliminar el recurso
-                    log.info("TODO: Eliminar recurso de Cloudinary: {}", publicId);
+                Message.Media media = message.getContent().getMedia();
+                if (media.getPublicId() != null) {
+                    requests.add(new MediaDeletionRequest(media.getPublicId(),
+                            media.getMediaType() == Message.MediaType.VIDEO
+                                    ? MediaResourceType.VIDEO
+                                    : MediaResourceType.IMAGE));
                 }
             }
         }
+        mediaDeletionService.enqueue(requests, MediaSource.CHAT_MESSAGE);
     }
 
     // === Notificaciones WebSocket ===
@@ -804,11 +1066,6 @@ public class ChatServiceImpl implements ChatService {
         messagingTemplate.convertAndSend("/topic/chat/" + conversationId + "/media-unlocked", message);
     }
 
-    private void notifyMessagesRead(String conversationId, UUID userId) {
-        messagingTemplate.convertAndSend("/topic/chat/" + conversationId + "/read",
-                java.util.Map.of("userId", userId.toString(), "timestamp", Instant.now().toString()));
-    }
-
     private void notifyConversationExpired(Conversation conversation) {
         for (Conversation.Participant participant : conversation.getParticipants()) {
             messagingTemplate.convertAndSendToUser(
@@ -886,49 +1143,6 @@ public class ChatServiceImpl implements ChatService {
                 .build();
     }
 
-    private ConversationListResponse mapToConversationListResponse(Conversation conversation, UUID currentUserId) {
-        Conversation.Participant currentUser = conversation.getParticipantByUserId(currentUserId);
-        Conversation.Participant otherUser = getOtherParticipant(conversation, currentUserId);
-
-        long remainingSeconds = 0;
-        if (conversation.getExpiresAt() != null) {
-            remainingSeconds = Math.max(0, Duration.between(Instant.now(), conversation.getExpiresAt()).getSeconds());
-        }
-
-        String lastMessagePreview = null;
-        ConversationListResponse.MessageType lastMessageType = null;
-        Instant lastMessageAt = null;
-        Boolean lastMessageIsFromMe = null;
-
-        if (conversation.getLastMessage() != null) {
-            Conversation.LastMessage lm = conversation.getLastMessage();
-            lastMessagePreview = lm.getContentPreview();
-            lastMessageType = ConversationListResponse.MessageType.valueOf(lm.getMessageType().name());
-            lastMessageAt = lm.getSentAt();
-            lastMessageIsFromMe = lm.getSenderId() != null && lm.getSenderId().equals(currentUserId);
-        }
-
-        return ConversationListResponse.builder()
-                .id(conversation.getId())
-                .requestId(conversation.getRequestId())
-                .status(ConversationListResponse.ConversationStatus.valueOf(conversation.getStatus().name()))
-                .otherUserId(otherUser.getUserId())
-                .otherUserDisplayName(otherUser.getDisplayName())
-                .otherUserProfilePhotoUrl(otherUser.getProfilePhotoUrl())
-                .otherUserIsAnonymous(otherUser.getIsAnonymous())
-                .lastMessagePreview(lastMessagePreview)
-                .lastMessageType(lastMessageType)
-                .lastMessageAt(lastMessageAt)
-                .lastMessageIsFromMe(lastMessageIsFromMe)
-                .unreadCount(currentUser != null ? currentUser.getUnreadCount() : 0)
-                .totalMessages(conversation.getMetadata() != null ? conversation.getMetadata().getTotalMessages() : 0)
-                .createdAt(conversation.getCreatedAt())
-                .expiresAt(conversation.getExpiresAt())
-                .remainingSeconds(remainingSeconds)
-                .isExpired(conversation.isExpired())
-                .build();
-    }
-
     private MessageResponse mapToMessageResponse(Message message, Conversation conversation, UUID currentUserId) {
         MessageResponse.ContentResponse contentResponse = null;
 
@@ -1006,6 +1220,7 @@ public class ChatServiceImpl implements ChatService {
                 .createdAt(message.getCreatedAt())
                 .expiresAt(message.getExpiresAt())
                 .remainingSeconds(remainingSeconds)
+                .cursor(message.getId() != null ? MessageCursor.of(message).encode() : null)
                 .build();
     }
 
@@ -0,0 +1,84 @@
+package com.near.api.modules.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversaciones autorizadas por sesión STOMP.
+ * La autorización se hace una sola vez (SUBSCRIBE o primer frame a /app/chat/{id}/...)
+ * y el conjunto se guarda en los atributos de la sesión; los frames siguientes se
+ * validan en memoria. Cuando una conversación expira se revoca en todas las sesiones.
+ */
+@Component
+@Slf4j
+public class ChatSessionRegistry {
+
+    public static final String ALLOWED_CONVERSATIONS_ATTRIBUTE = "allowedConversations";
+
+    // conversationId -> sesiones que la tienen autorizada (para revocar)
+    private final Map<String, Set<String>> sessionsByConversation = new ConcurrentHashMap<>();
+
+    // sessionId -> conjunto guardado en los atributos de la sesión
+    private final Map<String, Set<String>> conversationsBySession = new ConcurrentHashMap<>();
+
+    public boolean isAllowed(Map<String, Object> sessionAttributes, String conversationId) {
+        Set<String> allowed = allowedSet(sessionAttributes, false);
+        return allowed != null && allowed.contains(conversationId);
+    }
+
+    public void grant(String sessionId, Map<String, Object> sessionAttributes, String conversationId) {
+        Set<String> allowed = allowedSet(sessionAttributes, true);
+        allowed.add(conversationId);
+        conversationsBySession.put(sessionId, allowed);
+        sessionsByConversation.computeIfAbsent(conversationId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    /**
+     * Quitar la conversación de todas las sesiones (al expirar)
+     */
+    public void revokeConversation(String conversationId) {
+        Set<String> sessions = sessionsByConversation.remove(conversationId);
+        if (sessions == null) {
+            return;
+        }
+        for (String sessionId : sessions) {
+            Set<String> allowed = conversationsBySession.get(sessionId);
+            if (allowed != null) {
+                allowed.remove(conversationId);
+            }
+        }
+        log.debug("Conversación {} revocada en {} sesiones WebSocket", conversationId, sessions.size());
+    }
+
+    /**
+     * Limpiar al desconectarse la sesión
+     */
+    public void removeSession(String sessionId) {
+        Set<String> allowed = conversationsBySession.remove(sessionId);
+        if (allowed == null) {
+            return;
+        }
+        for (String conversationId : allowed) {
+            sessionsByConversation.computeIfPresent(conversationId, (id, sessions) -> {
+                sessions.remove(sessionId);
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> allowedSet(Map<String, Object> sessionAttributes, boolean create) {
+        if (sessionAttributes == null) {
+            return null;
+        }
+        if (create) {
+            return (Set<String>) sessionAttributes.computeIfAbsent(
+                    ALLOWED_CONVERSATIONS_ATTRIBUTE, key -> ConcurrentHashMap.newKeySet());
+        }
+        return (Set<String>) sessionAttributes.get(ALLOWED_CONVERSATIONS_ATTRIBUTE);
+    }
+}
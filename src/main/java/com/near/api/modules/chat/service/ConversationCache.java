@@ -0,0 +1,124 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.repository.ConversationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache read-through de los datos "estables" de una conversación:
+ * participantes (sin contadores de no leídos), estado, expiresAt, tipsEnabled
+ * y la recompensa original. Evita un findById por cada acción de chat
+ * (mensajes, typing, lecturas, validaciones de participante).
+ *
+ * Se invalida después de los @Update que cambian esos campos
+ * (updateStatus, updateTipsEnabled). El TTL acota la desactualización
+ * cuando el cambio ocurre en otra instancia.
+ * Las copias cacheadas son de solo lectura: no modificarlas.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConversationCache {
+
+    private final ConversationRepository conversationRepository;
+
+    @Value("${chat.conversation-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${chat.conversation-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    // LRU acotado (access-order)
+    private final Map<String, CachedConversation> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedConversation> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * Obtener la conversación desde el cache o, si no está o venció, desde MongoDB
+     */
+    public Optional<Conversation> get(String conversationId) {
+        synchronized (entries) {
+            CachedConversation cached = entries.get(conversationId);
+            if (cached != null && cached.getExpiresAt().isAfter(Instant.now())) {
+                return Optional.of(cached.getConversation());
+            }
+        }
+
+        Optional<Conversation> loaded = conversationRepository.findById(conversationId).map(this::trim);
+        loaded.ifPresent(this::store);
+        return loaded;
+    }
+
+    /**
+     * Guardar (o reemplazar) una conversación recién creada
+     */
+    public void put(Conversation conversation) {
+        if (conversation.getId() != null) {
+            store(trim(conversation));
+        }
+    }
+
+    /**
+     * Invalidar tras un cambio de estado o de configuración de la conversación
+     */
+    public void evict(String conversationId) {
+        synchronized (entries) {
+            entries.remove(conversationId);
+        }
+    }
+
+    private void store(Conversation trimmed) {
+        CachedConversation cached = new CachedConversation(trimmed,
+                Instant.now().plus(Duration.ofSeconds(ttlSeconds)));
+        synchronized (entries) {
+            entries.put(trimmed.getId(), cached);
+        }
+    }
+
+    /**
+     * Copia recortada: sin último mensaje ni contadores, que cambian con cada mensaje
+     */
+    private Conversation trim(Conversation conversation) {
+        return Conversation.builder()
+                .id(conversation.getId())
+                .requestId(conversation.getRequestId())
+                .participants(conversation.getParticipants().stream()
+                        .map(p -> Conversation.Participant.builder()
+                                .userId(p.getUserId())
+                                .role(p.getRole())
+                                .isAnonymous(p.getIsAnonymous())
+                                .displayName(p.getDisplayName())
+                                .profilePhotoUrl(p.getProfilePhotoUrl())
+                                .tipsEnabled(p.getTipsEnabled())
+                                .build())
+                        .toList())
+                .status(conversation.getStatus())
+                .metadata(Conversation.Metadata.builder()
+                        .originalRewardNears(conversation.getMetadata() != null
+                                ? conversation.getMetadata().getOriginalRewardNears()
+                                : null)
+                        .build())
+                .createdAt(conversation.getCreatedAt())
+                .expiresAt(conversation.getExpiresAt())
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedConversation {
+        private final Conversation conversation;
+        private final Instant expiresAt;
+    }
+}
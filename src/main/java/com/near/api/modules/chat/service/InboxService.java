@@ -0,0 +1,47 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.dto.response.ConversationListResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inbox desnormalizado por usuario (colección inbox_entries)
+ */
+public interface InboxService {
+
+    // === Lecturas ===
+
+    Page<ConversationListResponse> getInbox(UUID userId, Pageable pageable);
+
+    List<ConversationListResponse> getActiveInbox(UUID userId);
+
+    long countUnread(UUID userId);
+
+    // === Actualizaciones incrementales ===
+
+    /**
+     * Crea las filas de ambos participantes (con los contadores iniciales de la conversación)
+     */
+    void onConversationCreated(Conversation conversation);
+
+    /**
+     * Último mensaje y total para ambos participantes, +1 no leído para el destinatario.
+     * Un solo bulkWrite.
+     */
+    void onMessageSent(String conversationId, UUID senderId, UUID recipientId, Conversation.LastMessage lastMessage);
+
+    /**
+     * El usuario leyó readCount mensajes (resta del contador de no leídos)
+     */
+    void onRead(String conversationId, UUID userId, int readCount);
+
+    /**
+     * Marca las filas como EXPIRED y programa su purga junto con la de la conversación
+     */
+    void onConversationsExpired(List<String> conversationIds, Instant purgeAt);
+}
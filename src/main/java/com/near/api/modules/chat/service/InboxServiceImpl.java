@@ -0,0 +1,199 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.document.Conversation.ConversationStatus;
+import com.near.api.modules.chat.document.InboxEntry;
+import com.near.api.modules.chat.dto.response.ConversationListResponse;
+import com.near.api.modules.chat.repository.ConversationRepository;
+import com.near.api.modules.chat.repository.InboxEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InboxServiceImpl implements InboxService {
+
+    private final InboxEntryRepository inboxEntryRepository;
+    private final ConversationRepository conversationRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // === Lecturas ===
+
+    @Override
+    public Page<ConversationListResponse> getInbox(UUID userId, Pageable pageable) {
+        // El orden lo fija el índice (último mensaje desc); se ignora el sort del cliente
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return inboxEntryRepository.findByUserIdOrderBySortAtDesc(userId, unsorted)
+                .map(this::mapToConversationListResponse);
+    }
+
+    @Override
+    public List<ConversationListResponse> getActiveInbox(UUID userId) {
+        return inboxEntryRepository.findByUserIdAndStatusOrderBySortAtDesc(userId, ConversationStatus.ACTIVE)
+                .stream()
+                .map(this::mapToConversationListResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countUnread(UUID userId) {
+        return inboxEntryRepository.countWithUnreadMessages(userId);
+    }
+
+    // === Actualizaciones incrementales ===
+
+    @Override
+    public void onConversationCreated(Conversation conversation) {
+        inboxEntryRepository.saveAll(buildEntries(conversation));
+    }
+
+    @Override
+    public void onMessageSent(String conversationId, UUID senderId, UUID recipientId,
+                              Conversation.LastMessage lastMessage) {
+        Update senderUpdate = lastMessageUpdate(lastMessage);
+        Update recipientUpdate = lastMessageUpdate(lastMessage).inc("unreadCount", 1);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, InboxEntry.class);
+        bulk.updateOne(byId(InboxEntry.entryId(conversationId, senderId)), senderUpdate);
+        bulk.updateOne(byId(InboxEntry.entryId(conversationId, recipientId)), recipientUpdate);
+        bulk.execute();
+    }
+
+    @Override
+    public void onRead(String conversationId, UUID userId, int readCount) {
+        if (readCount > 0) {
+            inboxEntryRepository.incrementUnreadCount(InboxEntry.entryId(conversationId, userId), -readCount);
+        }
+    }
+
+    @Override
+    public void onConversationsExpired(List<String> conversationIds, Instant purgeAt) {
+        inboxEntryRepository.markExpired(conversationIds, purgeAt);
+    }
+
+    /**
+     * Backfill al arrancar la primera vez: las conversaciones viven pocas horas,
+     * así que alcanza con proyectar las que existan si el inbox está vacío.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (inboxEntryRepository.count() > 0) {
+                return;
+            }
+            List<InboxEntry> entries = new ArrayList<>();
+            conversationRepository.findAll().forEach(conversation -> entries.addAll(buildEntries(conversation)));
+            if (!entries.isEmpty()) {
+                inboxEntryRepository.saveAll(entries);
+                log.info("Inbox reconstruido desde {} conversaciones", entries.size() / 2);
+            }
+        } catch (Exception e) {
+            log.error("Error reconstruyendo el inbox: {}", e.getMessage());
+        }
+    }
+
+    // ============================================
+    // MÉTODOS AUXILIARES
+    // ============================================
+
+    private List<InboxEntry> buildEntries(Conversation conversation) {
+        List<InboxEntry> entries = new ArrayList<>();
+        Conversation.LastMessage lastMessage = conversation.getLastMessage();
+        Instant createdAt = conversation.getCreatedAt() != null ? conversation.getCreatedAt() : Instant.now();
+
+        for (Conversation.Participant participant : conversation.getParticipants()) {
+            Conversation.Participant other = conversation.getParticipants().stream()
+                    .filter(p -> !p.getUserId().equals(participant.getUserId()))
+                    .findFirst()
+                    .orElse(participant);
+
+            entries.add(InboxEntry.builder()
+                    .id(InboxEntry.entryId(conversation.getId(), participant.getUserId()))
+                    .userId(participant.getUserId())
+                    .conversationId(conversation.getId())
+                    .requestId(conversation.getRequestId())
+                    .status(conversation.getStatus())
+                    .otherUserId(other.getUserId())
+                    .otherUserDisplayName(other.getDisplayName())
+                    .otherUserProfilePhotoUrl(other.getProfilePhotoUrl())
+                    .otherUserIsAnonymous(other.getIsAnonymous())
+                    .lastMessagePreview(lastMessage != null ? lastMessage.getContentPreview() : null)
+                    .lastMessageType(lastMessage != null ? lastMessage.getMessageType() : null)
+                    .lastMessageSenderId(lastMessage != null ? lastMessage.getSenderId() : null)
+                    .lastMessageAt(lastMessage != null ? lastMessage.getSentAt() : null)
+                    .unreadCount(participant.getUnreadCount() != null ? participant.getUnreadCount() : 0)
+                    .totalMessages(conversation.getMetadata() != null ? conversation.getMetadata().getTotalMessages() : 0)
+                    .sortAt(lastMessage != null && lastMessage.getSentAt() != null ? lastMessage.getSentAt() : createdAt)
+                    .createdAt(createdAt)
+                    .expiresAt(conversation.getExpiresAt())
+                    .build());
+        }
+        return entries;
+    }
+
+    private Update lastMessageUpdate(Conversation.LastMessage lastMessage) {
+        return new Update()
+                .set("lastMessagePreview", lastMessage.getContentPreview())
+                .set("lastMessageType", lastMessage.getMessageType())
+                .set("lastMessageSenderId", lastMessage.getSenderId())
+                .set("lastMessageAt", lastMessage.getSentAt())
+                .set("sortAt", lastMessage.getSentAt())
+                .inc("totalMessages", 1);
+    }
+
+    private Query byId(String entryId) {
+        return new Query(Criteria.where("_id").is(entryId));
+    }
+
+    private ConversationListResponse mapToConversationListResponse(InboxEntry entry) {
+        long remainingSeconds = 0;
+        boolean isExpired = false;
+        if (entry.getExpiresAt() != null) {
+            remainingSeconds = Math.max(0, Duration.between(Instant.now(), entry.getExpiresAt()).getSeconds());
+            isExpired = Instant.now().isAfter(entry.getExpiresAt());
+        }
+
+        return ConversationListResponse.builder()
+                .id(entry.getConversationId())
+                .requestId(entry.getRequestId())
+                .status(ConversationListResponse.ConversationStatus.valueOf(entry.getStatus().name()))
+                .otherUserId(entry.getOtherUserId())
+                .otherUserDisplayName(entry.getOtherUserDisplayName())
+                .otherUserProfilePhotoUrl(entry.getOtherUserProfilePhotoUrl())
+                .otherUserIsAnonymous(entry.getOtherUserIsAnonymous())
+                .lastMessagePreview(entry.getLastMessagePreview())
+                .lastMessageType(entry.getLastMessageType() != null
+                        ? ConversationListResponse.MessageType.valueOf(entry.getLastMessageType().name())
+                        : null)
+                .lastMessageAt(entry.getLastMessageAt())
+                .lastMessageIsFromMe(entry.getLastMessageType() != null
+                        ? entry.getUserId().equals(entry.getLastMessageSenderId())
+                        : null)
+                .unreadCount(entry.getUnreadCount())
+                .totalMessages(entry.getTotalMessages())
+                .createdAt(entry.getCreatedAt())
+                .expiresAt(entry.getExpiresAt())
+                .remainingSeconds(remainingSeconds)
+                .isExpired(isExpired)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Message;
+import com.near.api.shared.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor de mensajes sobre (createdAt, _id), el mismo orden que el índice
+ * idx_conversation_created. Se serializa como base64 url-safe de "epochMillis:id".
+ */
+@Getter
+@AllArgsConstructor
+class MessageCursor {
+
+    private final Instant createdAt;
+    private final ObjectId id;
+
+    static MessageCursor of(Message message) {
+        ObjectId id = new ObjectId(message.getId());
+        // Mensajes anteriores a la auditoría no tienen created_at: se usa la fecha del ObjectId
+        Instant createdAt = message.getCreatedAt() != null ? message.getCreatedAt() : id.getDate().toInstant();
+        return new MessageCursor(createdAt, id);
+    }
+
+    static MessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new MessageCursor(
+                    Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    new ObjectId(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,170 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.repository.ConversationRepository;
+import com.near.api.modules.chat.repository.MessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa las confirmaciones de lectura en memoria y las persiste por lotes.
+ *
+ * Por cada (conversación, usuario) solo se guarda la marca de agua "leído hasta"
+ * más alta recibida; el flush periódico (o al desconectarse el usuario) la escribe
+ * en participants.lastReadAt con compare-and-set sobre el valor anterior, resta del
+ * contador de no leídos los mensajes que quedaron leídos y publica un único evento
+ * en /topic/chat/{id}/read. Una marca igual o anterior a la guardada se descarta.
+ * Los mensajes ya no se reescriben uno a uno con status READ: el estado de lectura
+ * se deriva de la marca de agua del otro participante.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadReceiptAggregator {
+
+    // Reintentos del compare-and-set cuando otra instancia avanza la misma marca a la vez
+    private static final int MAX_WATERMARK_ATTEMPTS = 3;
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final InboxService inboxService;
+
+    // "conversationId:userId" -> marca de agua pendiente de persistir
+    private final Map<String, PendingReceipt> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Registrar que el usuario leyó la conversación hasta readUpTo (se queda con el máximo)
+     */
+    public void record(String conversationId, UUID userId, Instant readUpTo) {
+        pending.merge(conversationId + ":" + userId,
+                new PendingReceipt(conversationId, userId, readUpTo),
+                (current, incoming) -> incoming.getReadUpTo().isAfter(current.getReadUpTo()) ? incoming : current);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.read-receipts.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingReceipt> receipts = new ArrayList<>();
+        pending.forEach((key, receipt) -> {
+            if (pending.remove(key, receipt)) {
+                receipts.add(receipt);
+            }
+        });
+
+        receipts.forEach(this::persist);
+        log.debug("Confirmaciones de lectura persistidas: {}", receipts.size());
+    }
+
+    /**
+     * Al cerrarse la sesión WebSocket se persisten las lecturas pendientes del usuario
+     */
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        Principal principal = event.getUser();
+        if (principal == null) {
+            return;
+        }
+        String userSuffix = ":" + principal.getName();
+
+        pending.forEach((key, receipt) -> {
+            if (key.endsWith(userSuffix) && pending.remove(key, receipt)) {
+                persist(receipt);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void persist(PendingReceipt receipt) {
+        try {
+            if (!advanceWatermark(receipt)) {
+                return;
+            }
+
+            messagingTemplate.convertAndSend(
+                    "/topic/chat/" + receipt.getConversationId() + "/read",
+                    Map.of(
+                            "userId", receipt.getUserId().toString(),
+                            "conversationId", receipt.getConversationId(),
+                            "readUpTo", receipt.getReadUpTo().toString(),
+                            "timestamp", Instant.now().toString()
+                    )
+            );
+        } catch (Exception e) {
+            log.error("Error persistiendo lectura de {} en conversación {}: {}",
+                    receipt.getUserId(), receipt.getConversationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Mueve lastReadAt de su valor actual a readUpTo y descuenta los mensajes recibidos
+     * en ese intervalo. El delta conmuta con los $inc de applyMessageSent, así que un mensaje
+     * enviado en medio no se pierde. Devuelve false si la marca guardada ya es igual o posterior.
+     */
+    private boolean advanceWatermark(PendingReceipt receipt) {
+        String conversationId = receipt.getConversationId();
+        UUID userId = receipt.getUserId();
+        // Mongo guarda milisegundos: así la marca leída de vuelta se compara igual a la escrita
+        Instant readUpTo = receipt.getReadUpTo().truncatedTo(ChronoUnit.MILLIS);
+
+        for (int attempt = 0; attempt < MAX_WATERMARK_ATTEMPTS; attempt++) {
+            Optional<Conversation.Participant> participant = conversationRepository.findReadWatermarks(conversationId)
+                    .flatMap(conversation -> conversation.getParticipants().stream()
+                            .filter(p -> userId.equals(p.getUserId()))
+                            .findFirst());
+            if (participant.isEmpty()) {
+                return false;
+            }
+
+            Instant current = participant.get().getLastReadAt();
+            if (current != null && !current.isBefore(readUpTo)) {
+                return false;
+            }
+
+            long read = messageRepository.countReceivedBetween(
+                    conversationId, userId, current != null ? current : Instant.EPOCH, readUpTo);
+
+            if (conversationRepository.advanceReadUpTo(conversationId, userId, current, readUpTo, -(int) read) > 0) {
+                inboxService.onRead(conversationId, userId, (int) read);
+                return true;
+            }
+        }
+
+        log.warn("Marca de lectura de {} en conversación {} no avanzada: cambió en cada intento",
+                userId, conversationId);
+        return false;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingReceipt {
+        private final String conversationId;
+        private final UUID userId;
+        private final Instant readUpTo;
+    }
+}
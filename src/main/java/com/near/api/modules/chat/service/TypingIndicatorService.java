@@ -0,0 +1,27 @@
+package com.near.api.modules.chat.service;
+
+import java.util.UUID;
+
+/**
+ * Estado de "escribiendo..." por (conversación, usuario).
+ * Solo publica transiciones en /topic/chat/{id}/typing; los eventos repetidos
+ * del cliente se absorben en memoria.
+ */
+public interface TypingIndicatorService {
+
+    /**
+     * Registra un evento de typing del cliente.
+     * Emite solo si cambia el estado (no escribía -> escribe o al revés).
+     */
+    void onTyping(String conversationId, UUID userId, String sessionId, boolean isTyping);
+
+    /**
+     * Limpia el estado de una sesión (desconexión), emitiendo isTyping=false si correspondía
+     */
+    void clearSession(String sessionId);
+
+    /**
+     * Expira los indicadores que no recibieron eventos dentro del TTL
+     */
+    void expireStaleIndicators();
+}
@@ -0,0 +1,157 @@
+package com.near.api.modules.chat.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Debounce de typing en el servidor:
+ * - Un "typing" repetido solo renueva el TTL, no se re-publica.
+ * - Rate limit por sesión: los inicios de typing más seguidos que el intervalo
+ *   mínimo se ignoran (evita tormentas de true/false). Los "stop" siempre pasan
+ *   para no dejar indicadores colgados.
+ * - Un barrido periódico publica isTyping=false para los que dejaron de enviar eventos.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TypingIndicatorServiceImpl implements TypingIndicatorService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${chat.typing.ttl-ms:5000}")
+    private long ttlMs;
+
+    @Value("${chat.typing.min-interval-ms:300}")
+    private long minIntervalMs;
+
+    // "conversationId:userId" -> estado activo (solo se guardan los que están escribiendo)
+    private final Map<String, TypingState> activeTyping = new ConcurrentHashMap<>();
+
+    // sessionId -> último inicio de typing aceptado (rate limit)
+    private final Map<String, Long> lastStartBySession = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTyping(String conversationId, UUID userId, String sessionId, boolean isTyping) {
+        String key = stateKey(conversationId, userId);
+        long now = System.currentTimeMillis();
+
+        if (!isTyping) {
+            // Transición a "no escribe": solo si estaba escribiendo
+            if (activeTyping.remove(key) != null) {
+                publish(conversationId, userId, false);
+            }
+            return;
+        }
+
+        TypingState current = activeTyping.get(key);
+        if (current != null) {
+            // Ya estaba escribiendo: solo renovar el TTL
+            current.touch(now);
+            return;
+        }
+
+        if (sessionId != null && isRateLimited(sessionId, now)) {
+            return;
+        }
+
+        if (activeTyping.putIfAbsent(key, new TypingState(conversationId, userId, sessionId, now)) == null) {
+            publish(conversationId, userId, true);
+        }
+    }
+
+    @Override
+    public void clearSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        lastStartBySession.remove(sessionId);
+
+        activeTyping.forEach((key, state) -> {
+            if (sessionId.equals(state.getSessionId()) && activeTyping.remove(key, state)) {
+                publish(state.getConversationId(), state.getUserId(), false);
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${chat.typing.sweep-interval-ms:1000}")
+    public void expireStaleIndicators() {
+        if (activeTyping.isEmpty()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - ttlMs;
+
+        activeTyping.forEach((key, state) -> {
+            if (state.getLastActivity() < cutoff && activeTyping.remove(key, state)) {
+                log.debug("Typing expirado para usuario {} en conversación {}",
+                        state.getUserId(), state.getConversationId());
+                publish(state.getConversationId(), state.getUserId(), false);
+            }
+        });
+    }
+
+    /**
+     * Al cerrarse la sesión WebSocket (con o sin frame DISCONNECT)
+     */
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        clearSession(event.getSessionId());
+    }
+
+    // ============================================
+    // MÉTODOS AUXILIARES
+    // ============================================
+
+    private boolean isRateLimited(String sessionId, long now) {
+        boolean[] limited = {false};
+        lastStartBySession.compute(sessionId, (id, last) -> {
+            if (last != null && now - last < minIntervalMs) {
+                limited[0] = true;
+                return last;
+            }
+            return now;
+        });
+        return limited[0];
+    }
+
+    private void publish(String conversationId, UUID userId, boolean isTyping) {
+        messagingTemplate.convertAndSend(
+                "/topic/chat/" + conversationId + "/typing",
+                Map.of(
+                        "userId", userId.toString(),
+                        "isTyping", isTyping,
+                        "timestamp", Instant.now().toString()
+                )
+        );
+    }
+
+    private String stateKey(String conversationId, UUID userId) {
+        return conversationId + ":" + userId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class TypingState {
+        private final String conversationId;
+        private final UUID userId;
+        private final String sessionId;
+        private volatile long lastActivity;
+
+        void touch(long now) {
+            this.lastActivity = now;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.near.api.modules.media.dto;
+
+import com.near.api.modules.media.storage.MediaResourceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Recurso a borrar del storage
+ */
+@Getter
+@AllArgsConstructor
+public class MediaDeletionRequest {
+
+    private final String publicId;
+
+    private final MediaResourceType resourceType;
+}
@@ -0,0 +1,81 @@
+package com.near.api.modules.media.entity;
+
+import com.near.api.modules.media.storage.MediaResourceType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Recurso de Cloudinary pendiente de borrar (media de conversaciones expiradas,
+ * entregas rechazadas). Lo procesa MediaDeletionServiceImpl por lotes; al borrarse
+ * (o si ya no existe) la fila se elimina. Al agotar los intentos queda en DEAD_LETTER.
+ */
+@Entity
+@Table(name = "media_deletion_tasks",
+       indexes = {
+           @Index(name = "idx_media_deletion_tasks_due", columnList = "status, next_attempt_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaDeletionTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "public_id", nullable = false, unique = true)
+    private String publicId;
+
+    @Column(name = "resource_type", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private MediaResourceType resourceType;
+
+    @Column(name = "source", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private MediaSource source;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private TaskStatus status = TaskStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    // Lease del worker que reclamó la tarea
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public enum TaskStatus {
+        PENDING,      // Esperando su próximo intento
+        PROCESSING,   // Reclamada por un worker
+        DEAD_LETTER   // Intentos agotados
+    }
+
+    public enum MediaSource {
+        CHAT_MESSAGE,    // Media de una conversación expirada
+        REQUEST_MEDIA    // Media de una entrega rechazada
+    }
+}
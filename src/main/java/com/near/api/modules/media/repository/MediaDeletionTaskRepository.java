@@ -0,0 +1,45 @@
+package com.near.api.modules.media.repository;
+
+import com.near.api.modules.media.entity.MediaDeletionTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MediaDeletionTaskRepository extends JpaRepository<MediaDeletionTask, UUID> {
+
+    /**
+     * Encolar un recurso; si ya estaba encolado no hace nada (public_id único)
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO media_deletion_tasks
+            (id, public_id, resource_type, source, status, attempts, next_attempt_at, created_at, updated_at)
+        VALUES (gen_random_uuid(), :publicId, :resourceType, :source, 'PENDING', 0, :now, :now, :now)
+        ON CONFLICT (public_id) DO NOTHING
+        """, nativeQuery = true)
+    int enqueueIfAbsent(@Param("publicId") String publicId,
+                        @Param("resourceType") String resourceType,
+                        @Param("source") String source,
+                        @Param("now") OffsetDateTime now);
+
+    /**
+     * Reclamar tareas vencidas (o con lease expirado) sin bloquear a otras instancias.
+     * Debe ejecutarse dentro de una transacción: las filas quedan bloqueadas hasta el commit.
+     */
+    @Query(value = """
+        SELECT * FROM media_deletion_tasks
+        WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+           OR (status = 'PROCESSING' AND locked_until < :now)
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<MediaDeletionTask> claimDueTasks(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,20 @@
+package com.near.api.modules.media.service;
+
+import com.near.api.modules.media.dto.MediaDeletionRequest;
+import com.near.api.modules.media.entity.MediaDeletionTask.MediaSource;
+
+import java.util.List;
+
+public interface MediaDeletionService {
+
+    /**
+     * Encola recursos para borrarlos del storage en segundo plano.
+     * No hace I/O remoto: solo inserta en media_deletion_tasks (idempotente por publicId).
+     */
+    void enqueue(List<MediaDeletionRequest> requests, MediaSource source);
+
+    /**
+     * Worker: reclama un lote y lo borra del storage en llamadas por lotes
+     */
+    void processDueTasks();
+}
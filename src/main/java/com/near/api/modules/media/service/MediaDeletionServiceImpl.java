@@ -0,0 +1,201 @@
+package com.near.api.modules.media.service;
+
+import com.near.api.modules.media.dto.MediaDeletionRequest;
+import com.near.api.modules.media.entity.MediaDeletionTask;
+import com.near.api.modules.media.entity.MediaDeletionTask.MediaSource;
+import com.near.api.modules.media.entity.MediaDeletionTask.TaskStatus;
+import com.near.api.modules.media.repository.MediaDeletionTaskRepository;
+import com.near.api.modules.media.storage.MediaResourceType;
+import com.near.api.modules.media.storage.MediaStorageClient;
+import com.near.api.modules.media.storage.MediaStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class MediaDeletionServiceImpl implements MediaDeletionService {
+
+    private final MediaDeletionTaskRepository mediaDeletionTaskRepository;
+    private final MediaStorageClient mediaStorageClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${media.deletion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${media.deletion.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${media.deletion.base-backoff-seconds:60}")
+    private long baseBackoffSeconds;
+
+    @Value("${media.deletion.max-backoff-seconds:21600}")
+    private long maxBackoffSeconds;
+
+    @Value("${media.deletion.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // Rate limit de llamadas al storage (la Admin API de Cloudinary tiene cupo por hora)
+    @Value("${media.deletion.max-calls-per-minute:30}")
+    private int maxCallsPerMinute;
+
+    private long nextCallAtNanos = 0;
+
+    public MediaDeletionServiceImpl(MediaDeletionTaskRepository mediaDeletionTaskRepository,
+                                    MediaStorageClient mediaStorageClient,
+                                    PlatformTransactionManager transactionManager) {
+        this.mediaDeletionTaskRepository = mediaDeletionTaskRepository;
+        this.mediaStorageClient = mediaStorageClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(List<MediaDeletionRequest> requests, MediaSource source) {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        int enqueued = 0;
+        for (MediaDeletionRequest request : requests) {
+            enqueued += mediaDeletionTaskRepository.enqueueIfAbsent(
+                    request.getPublicId(), request.getResourceType().name(), source.name(), now);
+        }
+
+        log.info("{} recursos encolados para borrar del storage ({})", enqueued, source);
+    }
+
+    /**
+     * Reclama un lote con FOR UPDATE SKIP LOCKED, marca el lease y borra fuera de la
+     * transacción, agrupando por tipo de recurso en llamadas de hasta maxBatchSize ids.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${media.deletion.poll-interval-ms:30000}")
+    public void processDueTasks() {
+        List<MediaDeletionTask> tasks = transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<MediaDeletionTask> claimed = mediaDeletionTaskRepository.claimDueTasks(now, batchSize);
+            claimed.forEach(task -> {
+                task.setStatus(TaskStatus.PROCESSING);
+                task.setLockedUntil(now.plusSeconds(leaseSeconds));
+            });
+            return mediaDeletionTaskRepository.saveAll(claimed);
+        });
+
+        if (tasks == null || tasks.isEmpty()) {
+            return;
+        }
+
+        log.info("Borrando {} recursos del storage", tasks.size());
+
+        Map<MediaResourceType, List<MediaDeletionTask>> byType = new EnumMap<>(MediaResourceType.class);
+        tasks.forEach(task -> byType.computeIfAbsent(task.getResourceType(), type -> new ArrayList<>()).add(task));
+
+        int chunkSize = mediaStorageClient.maxBatchSize();
+        byType.forEach((resourceType, typeTasks) -> {
+            for (int i = 0; i < typeTasks.size(); i += chunkSize) {
+                processChunk(resourceType, typeTasks.subList(i, Math.min(i + chunkSize, typeTasks.size())));
+            }
+        });
+    }
+
+    private void processChunk(MediaResourceType resourceType, List<MediaDeletionTask> chunk) {
+        List<String> publicIds = chunk.stream().map(MediaDeletionTask::getPublicId).toList();
+
+        Set<String> gone;
+        String error = null;
+        try {
+            awaitRateLimit();
+            gone = mediaStorageClient.deleteBatch(publicIds, resourceType);
+        } catch (MediaStorageException e) {
+            log.error("Error borrando lote de {} recursos: {}", chunk.size(), e.getMessage());
+            gone = Set.of();
+            error = e.getMessage();
+        }
+
+        List<MediaDeletionTask> done = new ArrayList<>();
+        List<MediaDeletionTask> retry = new ArrayList<>();
+        for (MediaDeletionTask task : chunk) {
+            if (gone.contains(task.getPublicId())) {
+                done.add(task);
+            } else {
+                scheduleRetry(task, error != null ? error : "El storage no confirmó el borrado");
+                retry.add(task);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            mediaDeletionTaskRepository.deleteAllInBatch(done);
+            mediaDeletionTaskRepository.saveAll(retry);
+        });
+
+        if (!retry.isEmpty()) {
+            log.warn("{} recursos {} quedaron pendientes de reintento", retry.size(), resourceType);
+        }
+    }
+
+    private void scheduleRetry(MediaDeletionTask task, String error) {
+        int attempts = task.getAttempts() + 1;
+        task.setAttempts(attempts);
+        task.setLastError(truncate(error));
+        task.setLockedUntil(null);
+
+        if (attempts >= maxAttempts) {
+            task.setStatus(TaskStatus.DEAD_LETTER);
+            log.error("Borrado de {} movido a dead-letter tras {} intentos: {}",
+                    task.getPublicId(), attempts, error);
+        } else {
+            task.setStatus(TaskStatus.PENDING);
+            task.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoffSeconds(attempts)));
+        }
+    }
+
+    /**
+     * Espacia las llamadas al storage para no superar maxCallsPerMinute.
+     * El worker es un único hilo programado, así que alcanza con un reloj local.
+     */
+    private void awaitRateLimit() {
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, maxCallsPerMinute);
+        long now = System.nanoTime();
+        long waitNanos = nextCallAtNanos - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        nextCallAtNanos = Math.max(now, nextCallAtNanos) + intervalNanos;
+    }
+
+    /**
+     * Backoff exponencial con jitter: base * 2^(intento-1), con tope, ±20%
+     */
+    private long backoffSeconds(int attempt) {
+        long exponential = baseBackoffSeconds * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(exponential, maxBackoffSeconds);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.max(1, (long) (capped * jitter));
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,79 @@
+package com.near.api.modules.media.storage;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Borrado por lotes con la Admin API de Cloudinary:
+ * DELETE /resources/{resource_type}/upload?public_ids[]=... (hasta 100 por llamada).
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage.client", havingValue = "cloudinary", matchIfMissing = true)
+@Slf4j
+public class CloudinaryMediaStorageClient implements MediaStorageClient {
+
+    private static final int MAX_PUBLIC_IDS_PER_CALL = 100;
+
+    private final RestClient restClient;
+
+    public CloudinaryMediaStorageClient(
+            @Value("${cloudinary.cloud-name}") String cloudName,
+            @Value("${cloudinary.api-key}") String apiKey,
+            @Value("${cloudinary.api-secret}") String apiSecret) {
+        this.restClient = RestClient.builder()
+                .baseUrl("https://api.cloudinary.com/v1_1/" + cloudName)
+                .defaultHeaders(headers -> headers.setBasicAuth(apiKey, apiSecret))
+                .build();
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_PUBLIC_IDS_PER_CALL;
+    }
+
+    @Override
+    public Set<String> deleteBatch(List<String> publicIds, MediaResourceType resourceType)
+            throws MediaStorageException {
+        try {
+            DeleteResourcesResponse response = restClient.delete()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/resources/{resourceType}/upload")
+                            .queryParam("public_ids[]", publicIds.toArray())
+                            .build(resourceType.getCloudinaryType()))
+                    .retrieve()
+                    .body(DeleteResourcesResponse.class);
+
+            Set<String> gone = new HashSet<>();
+            if (response != null && response.getDeleted() != null) {
+                response.getDeleted().forEach((publicId, result) -> {
+                    if ("deleted".equals(result) || "not_found".equals(result)) {
+                        gone.add(publicId);
+                    }
+                });
+            }
+            return gone;
+        } catch (RestClientException e) {
+            throw new MediaStorageException("Error borrando recursos de Cloudinary: " + e.getMessage(), e);
+        }
+    }
+
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class DeleteResourcesResponse {
+        // publicId -> "deleted" | "not_found"
+        private Map<String, String> deleted;
+    }
+}
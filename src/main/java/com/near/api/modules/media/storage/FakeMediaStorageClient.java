@@ -0,0 +1,77 @@
+package com.near.api.modules.media.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Storage simulado en memoria: no sale a la red, agrega latencia por lote y
+ * falla lotes completos con la tasa configurada. Para desarrollo local y pruebas.
+ *
+ * Los publicIds con prefijo "stuck-" nunca se borran (quedan en reintento hasta dead-letter).
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage.client", havingValue = "fake")
+@Slf4j
+public class FakeMediaStorageClient implements MediaStorageClient {
+
+    private final long latencyMs;
+    private final double batchFailureRate;
+
+    private final AtomicLong deletedCount = new AtomicLong();
+
+    public FakeMediaStorageClient(
+            @Value("${media.storage.fake.latency-ms:30}") long latencyMs,
+            @Value("${media.storage.fake.batch-failure-rate:0.0}") double batchFailureRate) {
+        this.latencyMs = latencyMs;
+        this.batchFailureRate = batchFailureRate;
+        log.warn("Usando storage de media simulado (latencia {}ms, tasa de fallo {})", latencyMs, batchFailureRate);
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return 100;
+    }
+
+    @Override
+    public Set<String> deleteBatch(List<String> publicIds, MediaResourceType resourceType)
+            throws MediaStorageException {
+        simulateLatency();
+
+        if (batchFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < batchFailureRate) {
+            throw new MediaStorageException("Storage simulado no disponible", null);
+        }
+
+        Set<String> gone = new HashSet<>();
+        for (String publicId : publicIds) {
+            if (!publicId.startsWith("stuck-")) {
+                gone.add(publicId);
+            }
+        }
+        deletedCount.addAndGet(gone.size());
+        log.debug("Storage simulado: {} recursos {} borrados", gone.size(), resourceType);
+        return gone;
+    }
+
+    public long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
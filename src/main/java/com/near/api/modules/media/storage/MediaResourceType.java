@@ -0,0 +1,19 @@
+package com.near.api.modules.media.storage;
+
+/**
+ * Tipo de recurso en el storage (Cloudinary separa imágenes y videos en la API de borrado)
+ */
+public enum MediaResourceType {
+    IMAGE("image"),
+    VIDEO("video");
+
+    private final String cloudinaryType;
+
+    MediaResourceType(String cloudinaryType) {
+        this.cloudinaryType = cloudinaryType;
+    }
+
+    public String getCloudinaryType() {
+        return cloudinaryType;
+    }
+}
@@ -0,0 +1,23 @@
+package com.near.api.modules.media.storage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cliente del storage de media. Implementaciones: Cloudinary (producción)
+ * y un storage simulado en memoria (media.storage.client=fake).
+ */
+public interface MediaStorageClient {
+
+    /**
+     * Máximo de publicIds por llamada a deleteBatch
+     */
+    int maxBatchSize();
+
+    /**
+     * Borra un lote de recursos del mismo tipo.
+     * Devuelve los publicIds que ya no existen en el storage (borrados o no encontrados);
+     * los que no están en el resultado deben reintentarse.
+     */
+    Set<String> deleteBatch(List<String> publicIds, MediaResourceType resourceType) throws MediaStorageException;
+}
@@ -0,0 +1,12 @@
+package com.near.api.modules.media.storage;
+
+/**
+ * Fallo de un lote completo contra el storage (red, rate limit, credenciales).
+ * Todas las tareas del lote se reintentan.
+ */
+public class MediaStorageException extends Exception {
+
+    public MediaStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
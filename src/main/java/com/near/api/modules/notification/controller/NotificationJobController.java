@@ -0,0 +1,52 @@
+package com.near.api.modules.notification.controller;
+
+import com.near.api.modules.notification.dto.response.NotificationJobResponse;
+import com.near.api.modules.notification.service.NotificationJobService;
+import com.near.api.shared.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Operación de la cola de reintentos de notificaciones (dead-letter)
+ */
+@RestController
+@RequestMapping("/api/v1/notifications/dead-letters")
+@RequiredArgsConstructor
+public class NotificationJobController {
+
+    private final NotificationJobService notificationJobService;
+
+    /**
+     * Listar notificaciones que agotaron sus reintentos
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Page<NotificationJobResponse>>> getDeadLetters(
+            @PageableDefault(size = 20) Pageable pageable) {
+        Page<NotificationJobResponse> jobs = notificationJobService.getDeadLetters(pageable);
+        return ResponseEntity.ok(ApiResponse.success(jobs));
+    }
+
+    /**
+     * Re-encolar una notificación en dead-letter
+     */
+    @PostMapping("/{jobId}/replay")
+    public ResponseEntity<ApiResponse<NotificationJobResponse>> replay(@PathVariable UUID jobId) {
+        NotificationJobResponse job = notificationJobService.replay(jobId);
+        return ResponseEntity.ok(ApiResponse.success("Notificación re-encolada", job));
+    }
+
+    /**
+     * Re-encolar todas las notificaciones en dead-letter
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<ApiResponse<Integer>> replayAll() {
+        int count = notificationJobService.replayAll();
+        return ResponseEntity.ok(ApiResponse.success("Notificaciones re-encoladas", count));
+    }
+}
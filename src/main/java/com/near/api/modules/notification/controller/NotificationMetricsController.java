@@ -0,0 +1,31 @@
+package com.near.api.modules.notification.controller;
+
+import com.near.api.config.ExecutorMetricsRegistry;
+import com.near.api.shared.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Métricas de los pools de envío de notificaciones (por clase de prioridad).
+ * Solo para operadores (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/notifications/metrics")
+@RequiredArgsConstructor
+public class NotificationMetricsController {
+
+    private final ExecutorMetricsRegistry executorMetricsRegistry;
+
+    /**
+     * Profundidad de cola, rechazos y latencias p50/p99 de cada pool
+     */
+    @GetMapping("/executors")
+    public ResponseEntity<ApiResponse<List<ExecutorMetricsRegistry.Snapshot>>> getExecutorMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(executorMetricsRegistry.snapshot()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.near.api.modules.notification.dto;
+
+/**
+ * Proyección de un token FCM activo con su tipo de dispositivo
+ */
+public interface FcmTokenTarget {
+
+    String getToken();
+
+    String getDeviceType();
+}
@@ -0,0 +1,21 @@
+package com.near.api.modules.notification.dto;
+
+import java.util.UUID;
+
+/**
+ * Proyección de un usuario candidato a recibir la notificación NEARBY_REQUEST
+ */
+public interface NearbyCandidate {
+
+    UUID getUserId();
+
+    Double getDistanceMeters();
+
+    Double getSecondsSinceUpdate();
+
+    Double getReputationStars();
+
+    Long getAcceptedCount();
+
+    Long getViewedCount();
+}
@@ -0,0 +1,25 @@
+package com.near.api.modules.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Parámetros de búsqueda de destinatarios para una request nueva
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetingCriteria {
+
+    private UUID requestId;
+    private UUID requesterId;
+    private double latitude;
+    private double longitude;
+    private int radiusMeters;
+    private boolean trustMode;
+}
@@ -0,0 +1,26 @@
+package com.near.api.modules.notification.dto.response;
+
+import com.near.api.modules.notification.dto.NotificationData.NotificationType;
+import com.near.api.modules.notification.entity.NotificationJob.JobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class NotificationJobResponse {
+
+    private UUID id;
+    private NotificationType notificationType;
+    private String title;
+    private JobStatus status;
+    private Integer tokenCount;
+    private Integer attempts;
+    private Integer maxAttempts;
+    private OffsetDateTime nextAttemptAt;
+    private String lastError;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+}
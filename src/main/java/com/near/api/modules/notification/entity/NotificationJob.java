@@ -0,0 +1,91 @@
+package com.near.api.modules.notification.entity;
+
+import com.near.api.modules.notification.dto.NotificationData.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Notificación push pendiente de reintento.
+ * Se crea cuando FCM rechaza un envío por un error transitorio (throttling, caída, etc.)
+ * y la procesan los workers con backoff exponencial. Al agotar los intentos
+ * queda en DEAD_LETTER hasta que se reprocese manualmente.
+ */
+@Entity
+@Table(name = "notification_jobs",
+       indexes = {
+           @Index(name = "idx_notification_jobs_due", columnList = "status, next_attempt_at")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "notification_type", nullable = false, length = 30)
+    @Enumerated(EnumType.STRING)
+    private NotificationType notificationType;
+
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "data", columnDefinition = "jsonb")
+    private Map<String, String> data;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "tokens", columnDefinition = "jsonb", nullable = false)
+    private List<String> tokens;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private JobStatus status = JobStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    // Lease del worker que reclamó el job (si el worker muere, otro lo retoma al vencer)
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public enum JobStatus {
+        PENDING,      // Esperando su próximo intento
+        PROCESSING,   // Reclamado por un worker
+        DEAD_LETTER   // Intentos agotados, requiere replay manual
+    }
+}
@@ -1,12 +1,16 @@
 package com.near.api.modules.notification.repository;
 
+import com.near.api.modules.notification.dto.FcmTokenTarget;
+import com.near.api.modules.notification.dto.NearbyCandidate;
 import com.near.api.modules.notification.entity.FcmToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +56,15 @@ public interface FcmTokenRepository extends JpaRepository<FcmToken, UUID> {
     @Query("UPDATE FcmToken f SET f.isActive = false WHERE f.token = :token")
     void deactivateToken(@Param("token") String token);
 
+    /**
+     * Desactivar varios tokens en una sola sentencia (tokens inválidos reportados por FCM).
+     * Transaccional porque se invoca desde hilos async sin transacción abierta.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE FcmToken f SET f.isActive = false WHERE f.token IN :tokens")
+    void deactivateTokens(@Param("tokens") List<String> tokens);
+
     /**
      * Desactivar todos los tokens de un usuario
      */
@@ -72,6 +85,54 @@ public interface FcmTokenRepository extends JpaRepository<FcmToken, UUID> {
     @Query("SELECT f.token FROM FcmToken f WHERE f.user.id IN :userIds AND f.isActive = true")
     List<String> findActiveTokensByUserIds(@Param("userIds") List<UUID> userIds);
 
+    /**
+     * Tokens activos de múltiples usuarios con su plataforma (para armar el payload por plataforma)
+     */
+    @Query("SELECT f.token AS token, f.deviceType AS deviceType FROM FcmToken f " +
+            "WHERE f.user.id IN :userIds AND f.isActive = true")
+    List<FcmTokenTarget> findActiveTargetsByUserIds(@Param("userIds") List<UUID> userIds);
+
+    /**
+     * Candidatos a notificar alrededor de un punto, con las señales que usa el ranking:
+     * distancia, antigüedad de la ubicación, reputación e historial de aceptación.
+     * Solo usuarios con al menos un token activo (los demás no pueden recibir el push).
+     */
+    @Query(value = """
+    SELECT u.id AS userId,
+           ST_Distance(
+               u.current_location::geography,
+               ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
+           ) AS distanceMeters,
+           EXTRACT(EPOCH FROM (NOW() - u.last_location_update)) AS secondsSinceUpdate,
+           COALESCE(u.reputation_stars, 0) AS reputationStars,
+           (SELECT COUNT(*) FROM requests r WHERE r.responder_id = u.id) AS acceptedCount,
+           (SELECT COUNT(*) FROM request_views v WHERE v.user_id = u.id) AS viewedCount
+    FROM users u
+    WHERE u.is_active = true
+    AND u.is_banned = false
+    AND u.current_location IS NOT NULL
+    AND u.last_location_update > :activeThreshold
+    AND u.id != :excludeUserId
+    AND COALESCE(u.reputation_stars, 0) >= :minReputation
+    AND ST_DWithin(
+        u.current_location::geography,
+        ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography,
+        :radiusMeters
+    )
+    AND EXISTS (SELECT 1 FROM fcm_tokens f WHERE f.user_id = u.id AND f.is_active = true)
+    ORDER BY distanceMeters
+    LIMIT :maxResults
+    """, nativeQuery = true)
+    List<NearbyCandidate> findNearbyCandidates(
+            @Param("lat") double lat,
+            @Param("lng") double lng,
+            @Param("radiusMeters") int radiusMeters,
+            @Param("activeThreshold") OffsetDateTime activeThreshold,
+            @Param("minReputation") BigDecimal minReputation,
+            @Param("excludeUserId") UUID excludeUserId,
+            @Param("maxResults") int maxResults
+    );
+
     /**
      * Contar tokens activos de un usuario
      */
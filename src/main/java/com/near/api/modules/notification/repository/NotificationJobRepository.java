@@ -0,0 +1,51 @@
+package com.near.api.modules.notification.repository;
+
+import com.near.api.modules.notification.entity.NotificationJob;
+import com.near.api.modules.notification.entity.NotificationJob.JobStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationJobRepository extends JpaRepository<NotificationJob, UUID> {
+
+    /**
+     * Reclamar jobs vencidos (o con lease expirado) sin bloquear a otras instancias.
+     * Debe ejecutarse dentro de una transacción: las filas quedan bloqueadas hasta el commit.
+     */
+    @Query(value = """
+        SELECT * FROM notification_jobs
+        WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+           OR (status = 'PROCESSING' AND locked_until < :now)
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<NotificationJob> claimDueJobs(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Jobs en un estado (para listar el dead-letter)
+     */
+    Page<NotificationJob> findByStatusOrderByUpdatedAtDesc(JobStatus status, Pageable pageable);
+
+    long countByStatus(JobStatus status);
+
+    /**
+     * Re-encolar todos los jobs en dead-letter
+     */
+    @Modifying
+    @Query("""
+        UPDATE NotificationJob j
+        SET j.status = 'PENDING', j.attempts = 0, j.nextAttemptAt = :now, j.lockedUntil = null
+        WHERE j.status = 'DEAD_LETTER'
+        """)
+    int requeueDeadLetters(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,164 @@
+package com.near.api.modules.notification.service;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.repository.FcmTokenRepository;
+import com.near.api.modules.notification.transport.PushBatchResult;
+import com.near.api.modules.notification.transport.PushPlatform;
+import com.near.api.modules.notification.transport.PushTransport;
+import com.near.api.modules.notification.transport.PushTransportException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Envío efectivo de notificaciones push a través del PushTransport configurado.
+ * Compartido entre el envío inmediato (NotificationServiceImpl) y los reintentos
+ * de la cola persistente (NotificationJobServiceImpl).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    // FCM permite máximo 500 tokens por request multicast
+    private static final int MAX_TOKENS_PER_BATCH = 500;
+
+    // Errores transitorios: vale la pena reintentar más tarde
+    private static final Set<MessagingErrorCode> RETRYABLE_ERRORS = EnumSet.of(
+            MessagingErrorCode.UNAVAILABLE,
+            MessagingErrorCode.INTERNAL,
+            MessagingErrorCode.QUOTA_EXCEEDED
+    );
+
+    private final PushTransport pushTransport;
+    private final FcmTokenRepository fcmTokenRepository;
+
+    public boolean isAvailable() {
+        return pushTransport.isAvailable();
+    }
+
+    /**
+     * Envía la notificación a tokens de plataforma desconocida (reintentos, envíos puntuales).
+     * Reciben tanto la configuración de Android como la de APNs.
+     */
+    public DispatchResult dispatch(List<String> tokens, NotificationData notification) {
+        return dispatch(Map.of(PushPlatform.UNKNOWN, tokens), notification);
+    }
+
+    /**
+     * Envía la notificación en lotes de 500 tokens, un grupo por plataforma.
+     * Los tokens inválidos se desactivan; los que fallan por errores transitorios
+     * se devuelven en el resultado para que el llamador los encole.
+     * Los lotes que fallan por un error permanente (credenciales, sender id...) se devuelven
+     * aparte: reintentarlos no sirve hasta que alguien corrija la configuración.
+     */
+    public DispatchResult dispatch(Map<PushPlatform, List<String>> tokensByPlatform, NotificationData notification) {
+        List<String> retryableTokens = new ArrayList<>();
+        List<String> failedTokens = new ArrayList<>();
+        String lastError = null;
+        int successCount = 0;
+
+        for (Map.Entry<PushPlatform, List<String>> entry : tokensByPlatform.entrySet()) {
+            PushPlatform platform = entry.getKey();
+            List<String> tokens = entry.getValue();
+
+            for (int i = 0; i < tokens.size(); i += MAX_TOKENS_PER_BATCH) {
+                List<String> batch = tokens.subList(i, Math.min(i + MAX_TOKENS_PER_BATCH, tokens.size()));
+
+                try {
+                    PushBatchResult response = pushTransport.sendMulticast(batch, platform, notification);
+                    successCount += response.getSuccessCount();
+                    lastError = handleBatchResponse(response, batch, retryableTokens, lastError);
+                } catch (PushTransportException e) {
+                    // Falló el lote completo (throttling, red, credenciales...)
+                    log.error("Error enviando notificación FCM: {} - {}", e.getErrorCode(), e.getMessage());
+                    if (RETRYABLE_ERRORS.contains(e.getErrorCode())) {
+                        retryableTokens.addAll(batch);
+                    } else {
+                        failedTokens.addAll(batch);
+                    }
+                    lastError = e.getErrorCode() + ": " + e.getMessage();
+                }
+            }
+        }
+
+        return new DispatchResult(successCount, retryableTokens, failedTokens, lastError);
+    }
+
+    /**
+     * Procesa la respuesta de un lote: desactiva tokens inválidos y acumula los reintentables.
+     * Devuelve el último error observado.
+     */
+    private String handleBatchResponse(PushBatchResult response, List<String> tokens,
+                                       List<String> retryableTokens, String lastError) {
+        int successCount = response.getSuccessCount();
+        int failureCount = response.getFailureCount();
+
+        log.info("Notificaciones enviadas: {} exitosas, {} fallidas", successCount, failureCount);
+
+        if (failureCount == 0) {
+            return lastError;
+        }
+
+        List<PushBatchResult.SendResult> responses = response.getResponses();
+        List<String> tokensToRemove = new ArrayList<>();
+
+        for (int i = 0; i < responses.size(); i++) {
+            PushBatchResult.SendResult sendResult = responses.get(i);
+            if (sendResult.isSuccessful() || sendResult.getErrorCode() == null) {
+                continue;
+            }
+
+            MessagingErrorCode errorCode = sendResult.getErrorCode();
+
+            // Si el token es inválido o no está registrado, lo desactivamos
+            if (errorCode == MessagingErrorCode.UNREGISTERED ||
+                errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
+                tokensToRemove.add(tokens.get(i));
+            } else if (RETRYABLE_ERRORS.contains(errorCode)) {
+                retryableTokens.add(tokens.get(i));
+                lastError = errorCode + ": " + sendResult.getErrorMessage();
+            }
+
+            log.debug("Error en token {}: {} - {}", i, errorCode, sendResult.getErrorMessage());
+        }
+
+        // Desactivar tokens inválidos
+        if (!tokensToRemove.isEmpty()) {
+            log.info("Desactivando {} tokens inválidos", tokensToRemove.size());
+            fcmTokenRepository.deactivateTokens(tokensToRemove);
+        }
+
+        return lastError;
+    }
+
+    /**
+     * Resultado de un envío: tokens a reintentar, tokens de lotes con error permanente
+     * y último error observado
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class DispatchResult {
+        private final int successCount;
+        private final List<String> retryableTokens;
+        private final List<String> failedTokens;
+        private final String lastError;
+
+        public boolean hasRetryableFailures() {
+            return !retryableTokens.isEmpty();
+        }
+
+        public boolean hasPermanentFailures() {
+            return !failedTokens.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.near.api.modules.notification.service;
+
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.dto.response.NotificationJobResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cola persistente de notificaciones que fallaron por errores transitorios de FCM
+ */
+public interface NotificationJobService {
+
+    /**
+     * Encolar un reintento para los tokens que fallaron
+     */
+    void enqueue(List<String> tokens, NotificationData notification, String lastError);
+
+    /**
+     * Registrar directamente en dead-letter los tokens que fallaron por un error permanente
+     */
+    void deadLetter(List<String> tokens, NotificationData notification, String lastError);
+
+    /**
+     * Procesar los jobs vencidos (worker programado)
+     */
+    void processDueJobs();
+
+    /**
+     * Listar jobs en dead-letter
+     */
+    Page<NotificationJobResponse> getDeadLetters(Pageable pageable);
+
+    /**
+     * Re-encolar un job en dead-letter para que se reintente de inmediato
+     */
+    NotificationJobResponse replay(UUID jobId);
+
+    /**
+     * Re-encolar todos los jobs en dead-letter
+     */
+    int replayAll();
+}
@@ -0,0 +1,260 @@
+package com.near.api.modules.notification.service;
+
+import com.near.api.shared.exception.BadRequestException;
+import com.near.api.shared.exception.ResourceNotFoundException;
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.dto.response.NotificationJobResponse;
+import com.near.api.modules.notification.entity.NotificationJob;
+import com.near.api.modules.notification.entity.NotificationJob.JobStatus;
+import com.near.api.modules.notification.repository.NotificationJobRepository;
+import com.near.api.modules.notification.service.NotificationDispatcher.DispatchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@Slf4j
+public class NotificationJobServiceImpl implements NotificationJobService {
+
+    private final NotificationJobRepository notificationJobRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification.queue.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${notification.queue.batch-size:50}")
+    private int batchSize;
+
+    @Value("${notification.queue.base-backoff-seconds:30}")
+    private long baseBackoffSeconds;
+
+    @Value("${notification.queue.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${notification.queue.lease-seconds:120}")
+    private long leaseSeconds;
+
+    public NotificationJobServiceImpl(NotificationJobRepository notificationJobRepository,
+                                      NotificationDispatcher notificationDispatcher,
+                                      PlatformTransactionManager transactionManager) {
+        this.notificationJobRepository = notificationJobRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(List<String> tokens, NotificationData notification, String lastError) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        // El envío inmediato cuenta como primer intento
+        NotificationJob job = buildJob(tokens, notification, lastError);
+        job.setStatus(JobStatus.PENDING);
+        job.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoffSeconds(1)));
+
+        notificationJobRepository.save(job);
+        log.warn("Notificación {} encolada para reintento ({} tokens): {}",
+                notification.getType(), tokens.size(), lastError);
+    }
+
+    @Override
+    @Transactional
+    public void deadLetter(List<String> tokens, NotificationData notification, String lastError) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        // Error permanente: no se reintenta, queda para re-encolar a mano tras corregir la causa
+        NotificationJob job = buildJob(tokens, notification, lastError);
+        job.setStatus(JobStatus.DEAD_LETTER);
+        job.setNextAttemptAt(OffsetDateTime.now());
+
+        notificationJobRepository.save(job);
+        log.error("Notificación {} movida a dead-letter sin reintentos ({} tokens): {}",
+                notification.getType(), tokens.size(), lastError);
+    }
+
+    private NotificationJob buildJob(List<String> tokens, NotificationData notification, String lastError) {
+        return NotificationJob.builder()
+                .notificationType(notification.getType())
+                .title(notification.getTitle())
+                .body(notification.getBody())
+                .data(notification.getData() != null ? new HashMap<>(notification.getData()) : null)
+                .tokens(new ArrayList<>(tokens))
+                .attempts(1)
+                .maxAttempts(maxAttempts)
+                .lastError(truncate(lastError))
+                .build();
+    }
+
+    /**
+     * Worker de reintentos. Reclama un lote con FOR UPDATE SKIP LOCKED (varias instancias
+     * pueden correrlo en paralelo sin duplicar envíos), marca el lease y envía fuera
+     * de la transacción para no retener conexiones mientras se habla con FCM.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${notification.queue.poll-interval-ms:5000}")
+    public void processDueJobs() {
+        if (!notificationDispatcher.isAvailable()) {
+            return;
+        }
+
+        List<NotificationJob> jobs = transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<NotificationJob> claimed = notificationJobRepository.claimDueJobs(now, batchSize);
+            List<NotificationJob> toProcess = new ArrayList<>();
+            for (NotificationJob job : claimed) {
+                // El intento se cuenta al reclamar: un job cuyo procesamiento falla sin
+                // registrar resultado (lease vencido) igual avanza hacia el dead-letter
+                if (job.getAttempts() >= job.getMaxAttempts()) {
+                    job.setStatus(JobStatus.DEAD_LETTER);
+                    job.setLockedUntil(null);
+                    log.error("Job de notificación {} movido a dead-letter: lease vencido tras {} intentos",
+                            job.getId(), job.getAttempts());
+                    continue;
+                }
+                job.setAttempts(job.getAttempts() + 1);
+                job.setStatus(JobStatus.PROCESSING);
+                job.setLockedUntil(now.plusSeconds(leaseSeconds));
+                toProcess.add(job);
+            }
+            notificationJobRepository.saveAll(claimed);
+            return toProcess;
+        });
+
+        if (jobs == null || jobs.isEmpty()) {
+            return;
+        }
+
+        log.info("Procesando {} notificaciones pendientes de reintento", jobs.size());
+
+        for (NotificationJob job : jobs) {
+            try {
+                processJob(job);
+            } catch (Exception e) {
+                // El intento ya quedó contado: el lease vencerá y otro ciclo lo retomará (o lo mandará a dead-letter)
+                log.error("Error procesando job de notificación {}: {}", job.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void processJob(NotificationJob job) {
+        NotificationData notification = NotificationData.builder()
+                .type(job.getNotificationType())
+                .title(job.getTitle())
+                .body(job.getBody())
+                .data(job.getData() != null ? job.getData() : new HashMap<>())
+                .build();
+
+        DispatchResult result = notificationDispatcher.dispatch(job.getTokens(), notification);
+        int attempts = job.getAttempts();
+
+        if (!result.hasRetryableFailures() && !result.hasPermanentFailures()) {
+            notificationJobRepository.delete(job);
+            log.info("Job de notificación {} completado en el intento {}", job.getId(), attempts);
+            return;
+        }
+
+        // Solo se conservan los tokens que siguen fallando
+        List<String> pendingTokens = new ArrayList<>(result.getRetryableTokens());
+        pendingTokens.addAll(result.getFailedTokens());
+        job.setTokens(pendingTokens);
+        job.setLastError(truncate(result.getLastError()));
+        job.setLockedUntil(null);
+
+        if (result.hasPermanentFailures() || attempts >= job.getMaxAttempts()) {
+            job.setStatus(JobStatus.DEAD_LETTER);
+            log.error("Job de notificación {} movido a dead-letter tras {} intentos: {}",
+                    job.getId(), attempts, result.getLastError());
+        } else {
+            job.setStatus(JobStatus.PENDING);
+            job.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoffSeconds(attempts)));
+        }
+
+        notificationJobRepository.save(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<NotificationJobResponse> getDeadLetters(Pageable pageable) {
+        return notificationJobRepository.findByStatusOrderByUpdatedAtDesc(JobStatus.DEAD_LETTER, pageable)
+                .map(this::mapToResponse);
+    }
+
+    @Override
+    @Transactional
+    public NotificationJobResponse replay(UUID jobId) {
+        NotificationJob job = notificationJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de notificación no encontrado"));
+
+        // Un job PENDING o PROCESSING ya está en curso: re-encolarlo duplicaría envíos
+        if (job.getStatus() != JobStatus.DEAD_LETTER) {
+            throw new BadRequestException("Solo se pueden re-encolar notificaciones en dead-letter");
+        }
+
+        job.setStatus(JobStatus.PENDING);
+        job.setAttempts(0);
+        job.setNextAttemptAt(OffsetDateTime.now());
+        job.setLockedUntil(null);
+
+        log.info("Job de notificación {} re-encolado manualmente", jobId);
+        return mapToResponse(notificationJobRepository.save(job));
+    }
+
+    @Override
+    @Transactional
+    public int replayAll() {
+        int count = notificationJobRepository.requeueDeadLetters(OffsetDateTime.now());
+        log.info("{} jobs de notificación re-encolados desde dead-letter", count);
+        return count;
+    }
+
+    /**
+     * Backoff exponencial con jitter: base * 2^(intento-1), con tope, ±20%
+     */
+    private long backoffSeconds(int attempt) {
+        long exponential = baseBackoffSeconds * (1L << Math.min(attempt - 1, 20));
+        long capped = Math.min(exponential, maxBackoffSeconds);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Math.max(1, (long) (capped * jitter));
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+
+    private NotificationJobResponse mapToResponse(NotificationJob job) {
+        return NotificationJobResponse.builder()
+                .id(job.getId())
+                .notificationType(job.getNotificationType())
+                .title(job.getTitle())
+                .status(job.getStatus())
+                .tokenCount(job.getTokens() != null ? job.getTokens().size() : 0)
+                .attempts(job.getAttempts())
+                .maxAttempts(job.getMaxAttempts())
+                .nextAttemptAt(job.getNextAttemptAt())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
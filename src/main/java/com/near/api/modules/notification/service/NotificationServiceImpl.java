@@ -1,21 +1,25 @@
 package com.near.api.modules.notification.service;
 
-import com.google.firebase.messaging.*;
+import com.near.api.config.AsyncConfig;
 import com.near.api.modules.auth.entity.User;
 import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.notification.dto.FcmTokenTarget;
 import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.dto.TargetingCriteria;
 import com.near.api.modules.notification.entity.FcmToken;
 import com.near.api.modules.notification.repository.FcmTokenRepository;
+import com.near.api.modules.notification.service.NotificationDispatcher.DispatchResult;
+import com.near.api.modules.notification.transport.PushPlatform;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,13 +30,9 @@ public class NotificationServiceImpl implements NotificationService {
 
     private final FcmTokenRepository fcmTokenRepository;
     private final UserRepository userRepository;
-    private final FirebaseMessaging firebaseMessaging;
-
-    // Configuración para búsqueda de usuarios cercanos
-    private static final int MAX_NEARBY_USERS = 100;
-    private static final int ACTIVE_MINUTES_THRESHOLD = 30;
-    private static final BigDecimal MIN_REPUTATION_FOR_TRUST = new BigDecimal("3.0");
-    private static final int MAX_RADIUS_METERS = 5000; // 5km máximo
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationJobService notificationJobService;
+    private final NotificationTargetingService notificationTargetingService;
 
     // ============================================
     // Gestión de tokens FCM
@@ -105,7 +105,7 @@ public class NotificationServiceImpl implements NotificationService {
     // ============================================
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void sendToUser(UUID userId, NotificationData notification) {
         List<FcmToken> tokens = fcmTokenRepository.findByUserIdAndIsActiveTrue(userId);
         
@@ -114,143 +114,68 @@ public class NotificationServiceImpl implements NotificationService {
             return;
         }
 
-        List<String> tokenStrings = tokens.stream()
-                .map(FcmToken::getToken)
-                .collect(Collectors.toList());
+        Map<PushPlatform, List<String>> tokensByPlatform = tokens.stream()
+                .collect(Collectors.groupingBy(
+                        token -> PushPlatform.fromDeviceType(token.getDeviceType()),
+                        () -> new EnumMap<>(PushPlatform.class),
+                        Collectors.mapping(FcmToken::getToken, Collectors.toList())));
 
-        sendToTokens(tokenStrings, notification);
+        sendToTokens(tokensByPlatform, notification);
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void sendToUsers(List<UUID> userIds, NotificationData notification) {
         if (userIds.isEmpty()) {
             return;
         }
 
-        List<String> tokens = fcmTokenRepository.findActiveTokensByUserIds(userIds);
+        List<FcmTokenTarget> targets = fcmTokenRepository.findActiveTargetsByUserIds(userIds);
         
-        if (tokens.isEmpty()) {
+        if (targets.isEmpty()) {
             log.debug("Ninguno de los {} usuarios tiene tokens FCM activos", userIds.size());
             return;
         }
 
         log.info("Enviando notificación {} a {} tokens de {} usuarios", 
-                notification.getType(), tokens.size(), userIds.size());
-        
-        sendToTokens(tokens, notification);
+                notification.getType(), targets.size(), userIds.size());
+
+        // Agrupar por plataforma para que cada una reciba solo su configuración
+        Map<PushPlatform, List<String>> tokensByPlatform = targets.stream()
+                .collect(Collectors.groupingBy(
+                        target -> PushPlatform.fromDeviceType(target.getDeviceType()),
+                        () -> new EnumMap<>(PushPlatform.class),
+                        Collectors.mapping(FcmTokenTarget::getToken, Collectors.toList())));
+
+        sendToTokens(tokensByPlatform, notification);
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void sendToToken(String fcmToken, NotificationData notification) {
-        sendToTokens(List.of(fcmToken), notification);
+        sendToTokens(Map.of(PushPlatform.UNKNOWN, List.of(fcmToken)), notification);
     }
 
     /**
-     * Método interno para enviar notificaciones a múltiples tokens
+     * Método interno para enviar notificaciones a múltiples tokens, agrupados por plataforma.
+     * Los tokens que fallan por errores transitorios de FCM se encolan para reintento;
+     * los de lotes con error permanente van directo a dead-letter.
      */
-    private void sendToTokens(List<String> tokens, NotificationData notification) {
-        if (tokens.isEmpty() || firebaseMessaging == null) {
-            if (firebaseMessaging == null) {
-                log.warn("Firebase Messaging no está configurado. Notificación no enviada.");
+    private void sendToTokens(Map<PushPlatform, List<String>> tokensByPlatform, NotificationData notification) {
+        if (tokensByPlatform.isEmpty() || !notificationDispatcher.isAvailable()) {
+            if (!notificationDispatcher.isAvailable()) {
+                log.warn("Transporte push no configurado. Notificación no enviada.");
             }
             return;
         }
 
-        try {
-            // Construir la notificación
-            MulticastMessage message = MulticastMessage.builder()
-                    .addAllTokens(tokens)
-                    .setNotification(Notification.builder()
-                            .setTitle(notification.getTitle())
-                            .setBody(notification.getBody())
-                            .build())
-                    .putAllData(notification.getData())
-                    // Configuración para Android
-                    .setAndroidConfig(AndroidConfig.builder()
-                            .setPriority(AndroidConfig.Priority.HIGH)
-                            .setNotification(AndroidNotification.builder()
-                                    .setClickAction("OPEN_NOTIFICATION")
-                                    .setSound("default")
-                                    .build())
-                            .build())
-                    // Configuración para iOS
-                    .setApnsConfig(ApnsConfig.builder()
-                            .setAps(Aps.builder()
-                                    .setSound("default")
-                                    .setBadge(1)
-                                    .build())
-                            .build())
-                    .build();
-
-            // Enviar en lotes si hay muchos tokens (FCM permite max 500 por request)
-            if (tokens.size() <= 500) {
-                BatchResponse response = firebaseMessaging.sendEachForMulticast(message);
-                handleBatchResponse(response, tokens);
-            } else {
-                // Dividir en lotes de 500
-                for (int i = 0; i < tokens.size(); i += 500) {
-                    List<String> batch = tokens.subList(i, Math.min(i + 500, tokens.size()));
-                    MulticastMessage batchMessage = MulticastMessage.builder()
-                            .addAllTokens(batch)
-                            .setNotification(Notification.builder()
-                                    .setTitle(notification.getTitle())
-                                    .setBody(notification.getBody())
-                                    .build())
-                            .putAllData(notification.getData())
-                            .setAndroidConfig(AndroidConfig.builder()
-                                    .setPriority(AndroidConfig.Priority.HIGH)
-                                    .build())
-                            .build();
-                    
-                    BatchResponse response = firebaseMessaging.sendEachForMulticast(batchMessage);
-                    handleBatchResponse(response, batch);
-                }
-            }
+        DispatchResult result = notificationDispatcher.dispatch(tokensByPlatform, notification);
 
-        } catch (FirebaseMessagingException e) {
-            log.error("Error enviando notificación FCM: {}", e.getMessage());
+        if (result.hasRetryableFailures()) {
+            notificationJobService.enqueue(result.getRetryableTokens(), notification, result.getLastError());
         }
-    }
-
-    /**
-     * Maneja la respuesta de envío masivo y limpia tokens inválidos
-     */
-    private void handleBatchResponse(BatchResponse response, List<String> tokens) {
-        int successCount = response.getSuccessCount();
-        int failureCount = response.getFailureCount();
-
-        log.info("Notificaciones enviadas: {} exitosas, {} fallidas", successCount, failureCount);
-
-        if (failureCount > 0) {
-            List<SendResponse> responses = response.getResponses();
-            List<String> tokensToRemove = new ArrayList<>();
-
-            for (int i = 0; i < responses.size(); i++) {
-                SendResponse sendResponse = responses.get(i);
-                if (!sendResponse.isSuccessful()) {
-                    FirebaseMessagingException exception = sendResponse.getException();
-                    if (exception != null) {
-                        MessagingErrorCode errorCode = exception.getMessagingErrorCode();
-                        
-                        // Si el token es inválido o no está registrado, lo desactivamos
-                        if (errorCode == MessagingErrorCode.UNREGISTERED ||
-                            errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
-                            tokensToRemove.add(tokens.get(i));
-                        }
-                        
-                        log.debug("Error en token {}: {} - {}", 
-                                i, errorCode, exception.getMessage());
-                    }
-                }
-            }
-
-            // Desactivar tokens inválidos
-            if (!tokensToRemove.isEmpty()) {
-                log.info("Desactivando {} tokens inválidos", tokensToRemove.size());
-                tokensToRemove.forEach(fcmTokenRepository::deactivateToken);
-            }
+        if (result.hasPermanentFailures()) {
+            notificationJobService.deadLetter(result.getFailedTokens(), notification, result.getLastError());
         }
     }
 
@@ -259,8 +184,7 @@ public class NotificationServiceImpl implements NotificationService {
     // ============================================
 
     @Override
-    @Async
-    @Transactional(readOnly = true)
+    @Async(AsyncConfig.DISCOVERY_EXECUTOR)
     public void notifyNearbyUsers(
             UUID requestId,
             UUID requesterId,
@@ -275,46 +199,16 @@ public class NotificationServiceImpl implements NotificationService {
     ) {
         log.info("Buscando usuarios cercanos para notificar sobre request {}", requestId);
 
-        // Limitar el radio a máximo 5km
-        int effectiveRadius = Math.min(radiusMeters, MAX_RADIUS_METERS);
-        
-        // Calcular el tiempo límite para usuarios "activos"
-        OffsetDateTime activeThreshold = OffsetDateTime.now().minusMinutes(ACTIVE_MINUTES_THRESHOLD);
-
-        // Buscar usuarios cercanos
-        List<UUID> nearbyUserIds;
-        
-        if ("TRUST".equalsIgnoreCase(trustMode)) {
-            // Solo usuarios con buena reputación
-            nearbyUserIds = userRepository.findNearbyActiveUsersForTrustMode(
-                    latitude, 
-                    longitude, 
-                    effectiveRadius,
-                    activeThreshold,
-                    MIN_REPUTATION_FOR_TRUST,
-                    requesterId,
-                    MAX_NEARBY_USERS
-            );
-        } else {
-            // Todos los usuarios cercanos
-            nearbyUserIds = userRepository.findNearbyActiveUsers(
-                    latitude, 
-                    longitude, 
-                    effectiveRadius,
-                    activeThreshold,
-                    requesterId,
-                    MAX_NEARBY_USERS
-            );
-        }
-
-        if (nearbyUserIds.isEmpty()) {
-            log.info("No se encontraron usuarios cercanos activos para request {}", requestId);
-            return;
-        }
-
-        log.info("Encontrados {} usuarios cercanos para notificar", nearbyUserIds.size());
+        TargetingCriteria criteria = TargetingCriteria.builder()
+                .requestId(requestId)
+                .requesterId(requesterId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusMeters(radiusMeters)
+                .trustMode("TRUST".equalsIgnoreCase(trustMode))
+                .build();
 
-        // Crear y enviar notificación
+        // Crear la notificación una sola vez para todas las olas
         NotificationData notification = NotificationData.nearbyRequest(
                 requestId,
                 locationName,
@@ -323,11 +217,13 @@ public class NotificationServiceImpl implements NotificationService {
                 description
         );
 
-        sendToUsers(nearbyUserIds, notification);
+        // Ranking + notificación progresiva (olas con radio creciente)
+        notificationTargetingService.startCampaign(criteria,
+                userIds -> sendToUsers(userIds, notification));
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void notifyRequestAccepted(UUID requesterId, UUID requestId, String responderName, String locationName) {
         NotificationData notification = NotificationData.requestAccepted(
                 requestId,
@@ -338,7 +234,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void notifyContentDelivered(UUID requesterId, UUID requestId, String responderName, String locationName) {
         NotificationData notification = NotificationData.contentDelivered(
                 requestId,
@@ -349,7 +245,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void notifyDeliveryConfirmed(UUID responderId, UUID requestId, int earnedNears) {
         NotificationData notification = NotificationData.deliveryConfirmed(
                 requestId,
@@ -359,7 +255,7 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Async
+    @Async(AsyncConfig.TRANSACTIONAL_EXECUTOR)
     public void notifyNewMessage(
             UUID recipientId,
             String conversationId,
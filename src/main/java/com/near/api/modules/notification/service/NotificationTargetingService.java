@@ -0,0 +1,34 @@
+package com.near.api.modules.notification.service;
+
+import com.near.api.modules.notification.dto.TargetingCriteria;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Selección de destinatarios para las notificaciones NEARBY_REQUEST
+ */
+public interface NotificationTargetingService {
+
+    /**
+     * Elegir los mejores K candidatos dentro del radio, ignorando los ya notificados
+     *
+     * @param criteria Ubicación, solicitante y modo de confianza de la request
+     * @param radiusMeters Radio de búsqueda de esta ola
+     * @param excludedUserIds Usuarios que ya fueron notificados
+     * @param limit Cantidad máxima de usuarios a devolver (K)
+     * @return IDs ordenados de mayor a menor puntaje
+     */
+    List<UUID> selectTargets(TargetingCriteria criteria, int radiusMeters, Set<UUID> excludedUserIds, int limit);
+
+    /**
+     * Notificar por olas: primero los K mejores en un radio reducido y, si nadie
+     * acepta la request en el intervalo configurado, ampliar el radio y notificar a los siguientes
+     *
+     * @param criteria Parámetros de la request
+     * @param sender Envía la notificación a los usuarios seleccionados en cada ola
+     */
+    void startCampaign(TargetingCriteria criteria, Consumer<List<UUID>> sender);
+}
@@ -0,0 +1,214 @@
+package com.near.api.modules.notification.service;
+
+import com.near.api.config.AsyncConfig;
+import com.near.api.modules.notification.dto.NearbyCandidate;
+import com.near.api.modules.notification.dto.TargetingCriteria;
+import com.near.api.modules.notification.repository.FcmTokenRepository;
+import com.near.api.modules.request.entity.Request.RequestStatus;
+import com.near.api.modules.request.repository.RequestRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class NotificationTargetingServiceImpl implements NotificationTargetingService {
+
+    private final FcmTokenRepository fcmTokenRepository;
+    private final RequestRepository requestRepository;
+    private final TaskScheduler taskScheduler;
+    private final Executor discoveryExecutor;
+
+    // Límites de búsqueda
+    private static final int ACTIVE_MINUTES_THRESHOLD = 30;
+    private static final BigDecimal MIN_REPUTATION_FOR_TRUST = new BigDecimal("3.0");
+    private static final int MAX_RADIUS_METERS = 5000; // 5km máximo
+    private static final int MIN_WAVE_RADIUS_METERS = 200;
+    private static final int CANDIDATE_POOL_SIZE = 300; // Candidatos más cercanos que se puntúan
+
+    // Pesos del puntaje (suman 1)
+    private static final double DISTANCE_WEIGHT = 0.4;
+    private static final double RECENCY_WEIGHT = 0.2;
+    private static final double REPUTATION_WEIGHT = 0.2;
+    private static final double ACCEPTANCE_WEIGHT = 0.2;
+
+    // Total de notificados sumando todas las olas
+    @Value("${notification.targeting.max-users:100}")
+    private int maxNearbyUsers;
+
+    @Value("${notification.targeting.wave-size:40}")
+    private int waveSize;
+
+    @Value("${notification.targeting.max-waves:3}")
+    private int maxWaves;
+
+    @Value("${notification.targeting.wave-delay-seconds:60}")
+    private long waveDelaySeconds;
+
+    public NotificationTargetingServiceImpl(FcmTokenRepository fcmTokenRepository,
+                                            RequestRepository requestRepository,
+                                            TaskScheduler taskScheduler,
+                                            @Qualifier(AsyncConfig.DISCOVERY_EXECUTOR) Executor discoveryExecutor) {
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.requestRepository = requestRepository;
+        this.taskScheduler = taskScheduler;
+        this.discoveryExecutor = discoveryExecutor;
+    }
+
+    @Override
+    public List<UUID> selectTargets(TargetingCriteria criteria, int radiusMeters,
+                                    Set<UUID> excludedUserIds, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        OffsetDateTime activeThreshold = OffsetDateTime.now().minusMinutes(ACTIVE_MINUTES_THRESHOLD);
+        BigDecimal minReputation = criteria.isTrustMode() ? MIN_REPUTATION_FOR_TRUST : BigDecimal.ZERO;
+
+        List<NearbyCandidate> candidates = fcmTokenRepository.findNearbyCandidates(
+                criteria.getLatitude(),
+                criteria.getLongitude(),
+                radiusMeters,
+                activeThreshold,
+                minReputation,
+                criteria.getRequesterId(),
+                Math.max(CANDIDATE_POOL_SIZE, limit + excludedUserIds.size())
+        );
+
+        // Min-heap acotado: la raíz es el peor de los K mejores vistos hasta ahora
+        PriorityQueue<ScoredCandidate> topK = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(ScoredCandidate::getScore));
+
+        for (NearbyCandidate candidate : candidates) {
+            if (excludedUserIds.contains(candidate.getUserId())) {
+                continue;
+            }
+
+            double score = score(candidate, radiusMeters);
+            if (topK.size() < limit) {
+                topK.offer(new ScoredCandidate(candidate.getUserId(), score));
+            } else if (score > topK.peek().getScore()) {
+                topK.poll();
+                topK.offer(new ScoredCandidate(candidate.getUserId(), score));
+            }
+        }
+
+        List<ScoredCandidate> ranked = new ArrayList<>(topK);
+        ranked.sort(Comparator.comparingDouble(ScoredCandidate::getScore).reversed());
+
+        log.debug("Ranking para request {}: {} candidatos en {}m, {} seleccionados",
+                criteria.getRequestId(), candidates.size(), radiusMeters, ranked.size());
+
+        return ranked.stream().map(ScoredCandidate::getUserId).toList();
+    }
+
+    @Override
+    public void startCampaign(TargetingCriteria criteria, Consumer<List<UUID>> sender) {
+        runWave(criteria, sender, new HashSet<>(), 1);
+    }
+
+    /**
+     * Ejecuta una ola y programa la siguiente si todavía quedan olas y cupo
+     */
+    private void runWave(TargetingCriteria criteria, Consumer<List<UUID>> sender,
+                         Set<UUID> notifiedUserIds, int wave) {
+        try {
+            // A partir de la segunda ola solo seguimos si nadie aceptó la request
+            if (wave > 1) {
+                Optional<RequestStatus> status = requestRepository.findStatusById(criteria.getRequestId());
+                if (status.isEmpty() || status.get() != RequestStatus.PENDING) {
+                    log.debug("Request {} ya no está pendiente, se detiene la notificación por olas",
+                            criteria.getRequestId());
+                    return;
+                }
+            }
+
+            int currentWave = wave;
+            List<UUID> selected = List.of();
+
+            // Si una ola no encuentra a nadie nuevo, pasar directamente a un radio mayor
+            while (currentWave <= maxWaves) {
+                int remaining = maxNearbyUsers - notifiedUserIds.size();
+                int limit = Math.min(waveSize, remaining);
+                selected = selectTargets(criteria, waveRadius(criteria, currentWave), notifiedUserIds, limit);
+                if (!selected.isEmpty() || limit <= 0) {
+                    break;
+                }
+                currentWave++;
+            }
+
+            if (selected.isEmpty()) {
+                log.info("No hay más usuarios cercanos para notificar sobre request {}", criteria.getRequestId());
+                return;
+            }
+
+            notifiedUserIds.addAll(selected);
+            log.info("Ola {} de request {}: notificando {} usuarios (radio {}m)",
+                    currentWave, criteria.getRequestId(), selected.size(), waveRadius(criteria, currentWave));
+            sender.accept(selected);
+
+            if (currentWave < maxWaves && notifiedUserIds.size() < maxNearbyUsers) {
+                int nextWave = currentWave + 1;
+                // El scheduler solo dispara; el envío corre en el pool de descubrimiento
+                taskScheduler.schedule(
+                        () -> discoveryExecutor.execute(() -> runWave(criteria, sender, notifiedUserIds, nextWave)),
+                        Instant.now().plusSeconds(waveDelaySeconds)
+                );
+            }
+        } catch (Exception e) {
+            log.error("Error en la ola {} de notificaciones de request {}: {}",
+                    wave, criteria.getRequestId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Radio de cada ola: se duplica en cada una hasta llegar al radio de la request (máx. 5km)
+     */
+    private int waveRadius(TargetingCriteria criteria, int wave) {
+        int effectiveRadius = Math.min(criteria.getRadiusMeters(), MAX_RADIUS_METERS);
+        int radius = effectiveRadius >> Math.max(0, maxWaves - wave);
+        return Math.min(effectiveRadius, Math.max(radius, MIN_WAVE_RADIUS_METERS));
+    }
+
+    /**
+     * Puntaje en [0, 1] combinando cercanía, ubicación reciente, reputación y tasa de aceptación
+     */
+    private double score(NearbyCandidate candidate, int radiusMeters) {
+        double distance = candidate.getDistanceMeters() != null ? candidate.getDistanceMeters() : radiusMeters;
+        double distanceScore = 1.0 - Math.min(1.0, distance / Math.max(1, radiusMeters));
+
+        double seconds = candidate.getSecondsSinceUpdate() != null ? candidate.getSecondsSinceUpdate() : 0;
+        double recencyScore = 1.0 - Math.min(1.0, seconds / (ACTIVE_MINUTES_THRESHOLD * 60.0));
+
+        double stars = candidate.getReputationStars() != null ? candidate.getReputationStars() : 0;
+        double reputationScore = Math.min(1.0, stars / 5.0);
+
+        // Suavizado de Laplace: usuarios sin historial parten de 0.5
+        long accepted = candidate.getAcceptedCount() != null ? candidate.getAcceptedCount() : 0;
+        long viewed = candidate.getViewedCount() != null ? candidate.getViewedCount() : 0;
+        double acceptanceScore = Math.min(1.0, (accepted + 1.0) / (Math.max(viewed, accepted) + 2.0));
+
+        return DISTANCE_WEIGHT * distanceScore
+                + RECENCY_WEIGHT * recencyScore
+                + REPUTATION_WEIGHT * reputationScore
+                + ACCEPTANCE_WEIGHT * acceptanceScore;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ScoredCandidate {
+        private final UUID userId;
+        private final double score;
+    }
+}
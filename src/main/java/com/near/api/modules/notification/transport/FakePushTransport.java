@@ -0,0 +1,112 @@
+package com.near.api.modules.notification.transport;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.near.api.modules.notification.dto.NotificationData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FCM simulado en memoria: no sale a la red, agrega latencia por lote y
+ * devuelve errores configurables. Pensado para desarrollo local y pruebas de carga.
+ *
+ * Tokens con prefijo "invalid-" siempre fallan con UNREGISTERED y los que
+ * empiezan con "unavailable-" con UNAVAILABLE, para ejercitar la limpieza y los reintentos.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.push.transport", havingValue = "fake")
+@Slf4j
+public class FakePushTransport implements PushTransport {
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double failureRate;
+    private final List<MessagingErrorCode> failureCodes;
+    private final double batchFailureRate;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public FakePushTransport(
+            @Value("${notification.push.fake.latency-ms:50}") long latencyMs,
+            @Value("${notification.push.fake.latency-jitter-ms:20}") long latencyJitterMs,
+            @Value("${notification.push.fake.failure-rate:0.0}") double failureRate,
+            @Value("${notification.push.fake.failure-codes:UNAVAILABLE}") List<MessagingErrorCode> failureCodes,
+            @Value("${notification.push.fake.batch-failure-rate:0.0}") double batchFailureRate) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.failureRate = failureRate;
+        this.failureCodes = failureCodes.isEmpty() ? List.of(MessagingErrorCode.UNAVAILABLE) : failureCodes;
+        this.batchFailureRate = batchFailureRate;
+        log.warn("Usando FCM simulado (latencia {}ms ±{}ms, tasa de fallo {})", latencyMs, latencyJitterMs, failureRate);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public PushBatchResult sendMulticast(List<String> tokens, PushPlatform platform, NotificationData notification)
+            throws PushTransportException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        simulateLatency(random);
+
+        if (batchFailureRate > 0 && random.nextDouble() < batchFailureRate) {
+            failedCount.addAndGet(tokens.size());
+            throw new PushTransportException(MessagingErrorCode.UNAVAILABLE, "FCM simulado no disponible", null);
+        }
+
+        List<PushBatchResult.SendResult> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            MessagingErrorCode errorCode = resolveError(token, random);
+            if (errorCode == null) {
+                results.add(PushBatchResult.SendResult.success());
+                sentCount.incrementAndGet();
+            } else {
+                results.add(PushBatchResult.SendResult.failure(errorCode, "Error simulado: " + errorCode));
+                failedCount.incrementAndGet();
+            }
+        }
+        return new PushBatchResult(results);
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private MessagingErrorCode resolveError(String token, ThreadLocalRandom random) {
+        if (token.startsWith("invalid-")) {
+            return MessagingErrorCode.UNREGISTERED;
+        }
+        if (token.startsWith("unavailable-")) {
+            return MessagingErrorCode.UNAVAILABLE;
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            return failureCodes.get(random.nextInt(failureCodes.size()));
+        }
+        return null;
+    }
+
+    private void simulateLatency(ThreadLocalRandom random) {
+        long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.near.api.modules.notification.transport;
+
+import com.google.firebase.messaging.*;
+import com.near.api.modules.notification.dto.NotificationData;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envío real a través de Firebase Cloud Messaging
+ */
+@Component
+@ConditionalOnProperty(name = "notification.push.transport", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushTransport implements PushTransport {
+
+    // Null si Firebase no está configurado (ver FirebaseConfig)
+    private final FirebaseMessaging firebaseMessaging;
+    private final PushMessageTemplates messageTemplates;
+
+    public FirebasePushTransport(ObjectProvider<FirebaseMessaging> firebaseMessaging,
+                                 PushMessageTemplates messageTemplates) {
+        this.firebaseMessaging = firebaseMessaging.getIfAvailable();
+        this.messageTemplates = messageTemplates;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return firebaseMessaging != null;
+    }
+
+    @Override
+    public PushBatchResult sendMulticast(List<String> tokens, PushPlatform platform, NotificationData notification)
+            throws PushTransportException {
+        try {
+            MulticastMessage message = messageTemplates.build(tokens, platform, notification);
+            BatchResponse response = firebaseMessaging.sendEachForMulticast(message);
+
+            List<PushBatchResult.SendResult> results = new ArrayList<>(tokens.size());
+            for (SendResponse sendResponse : response.getResponses()) {
+                if (sendResponse.isSuccessful()) {
+                    results.add(PushBatchResult.SendResult.success());
+                } else {
+                    FirebaseMessagingException exception = sendResponse.getException();
+                    results.add(PushBatchResult.SendResult.failure(
+                            exception != null ? exception.getMessagingErrorCode() : null,
+                            exception != null ? exception.getMessage() : null));
+                }
+            }
+            return new PushBatchResult(results);
+
+        } catch (FirebaseMessagingException e) {
+            throw new PushTransportException(e.getMessagingErrorCode(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.near.api.modules.notification.transport;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Resultado del envío de un lote: una respuesta por token, en el orden original
+ */
+@Getter
+@AllArgsConstructor
+public class PushBatchResult {
+
+    private final List<SendResult> responses;
+
+    public int getSuccessCount() {
+        return (int) responses.stream().filter(SendResult::isSuccessful).count();
+    }
+
+    public int getFailureCount() {
+        return responses.size() - getSuccessCount();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SendResult {
+        private final boolean successful;
+        private final MessagingErrorCode errorCode;
+        private final String errorMessage;
+
+        public static SendResult success() {
+            return new SendResult(true, null, null);
+        }
+
+        public static SendResult failure(MessagingErrorCode errorCode, String errorMessage) {
+            return new SendResult(false, errorCode, errorMessage);
+        }
+    }
+}
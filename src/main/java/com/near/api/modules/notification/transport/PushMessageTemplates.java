@@ -0,0 +1,77 @@
+package com.near.api.modules.notification.transport;
+
+import com.google.firebase.messaging.*;
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.dto.NotificationData.NotificationType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plantillas de mensajes FCM precalculadas.
+ * Las configuraciones de Android y APNs son inmutables, así que se construyen
+ * una sola vez (APNs por tipo de notificación) y se reutilizan en todos los lotes.
+ */
+@Component
+public class PushMessageTemplates {
+
+    // Configuración para Android (igual para todos los tipos)
+    private static final AndroidConfig ANDROID_CONFIG = AndroidConfig.builder()
+            .setPriority(AndroidConfig.Priority.HIGH)
+            .setNotification(AndroidNotification.builder()
+                    .setClickAction("OPEN_NOTIFICATION")
+                    .setSound("default")
+                    .build())
+            .build();
+
+    private static final ApnsConfig DEFAULT_APNS_CONFIG = buildApnsConfig(null);
+
+    private final Map<NotificationType, ApnsConfig> apnsConfigs = new EnumMap<>(NotificationType.class);
+
+    public PushMessageTemplates() {
+        for (NotificationType type : NotificationType.values()) {
+            apnsConfigs.put(type, buildApnsConfig(type));
+        }
+    }
+
+    /**
+     * Construir el mensaje de un lote con el payload mínimo para la plataforma
+     */
+    public MulticastMessage build(List<String> tokens, PushPlatform platform, NotificationData notification) {
+        MulticastMessage.Builder builder = MulticastMessage.builder()
+                .addAllTokens(tokens)
+                .setNotification(Notification.builder()
+                        .setTitle(notification.getTitle())
+                        .setBody(notification.getBody())
+                        .build());
+
+        if (notification.getData() != null) {
+            builder.putAllData(notification.getData());
+        }
+
+        NotificationType type = notification.getType();
+        if (platform == PushPlatform.ANDROID || platform == PushPlatform.UNKNOWN) {
+            builder.setAndroidConfig(ANDROID_CONFIG);
+        }
+        if (platform == PushPlatform.IOS || platform == PushPlatform.UNKNOWN) {
+            builder.setApnsConfig(type != null ? apnsConfigs.get(type) : DEFAULT_APNS_CONFIG);
+        }
+
+        return builder.build();
+    }
+
+    // Configuración para iOS: el thread-id agrupa en el centro de notificaciones por tipo
+    private static ApnsConfig buildApnsConfig(NotificationType type) {
+        Aps.Builder aps = Aps.builder()
+                .setSound("default")
+                .setBadge(1);
+        if (type != null) {
+            aps.setThreadId(type.name());
+        }
+        return ApnsConfig.builder()
+                .setAps(aps.build())
+                .build();
+    }
+}
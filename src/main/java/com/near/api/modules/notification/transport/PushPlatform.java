@@ -0,0 +1,24 @@
+package com.near.api.modules.notification.transport;
+
+/**
+ * Plataforma destino de un token, según FcmToken.deviceType.
+ * Cada plataforma recibe solo la configuración que entiende.
+ */
+public enum PushPlatform {
+    ANDROID,
+    IOS,
+    WEB,
+    UNKNOWN;   // Sin deviceType conocido (o reintentos): se envían ambas configuraciones
+
+    public static PushPlatform fromDeviceType(String deviceType) {
+        if (deviceType == null) {
+            return UNKNOWN;
+        }
+        return switch (deviceType.trim().toLowerCase()) {
+            case "android" -> ANDROID;
+            case "ios" -> IOS;
+            case "web" -> WEB;
+            default -> UNKNOWN;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.near.api.modules.notification.transport;
+
+import com.near.api.modules.notification.dto.NotificationData;
+
+import java.util.List;
+
+/**
+ * Canal de envío de notificaciones push.
+ * La implementación se elige con la propiedad notification.push.transport:
+ * "firebase" (por defecto) o "fake" (FCM simulado en memoria para pruebas de carga).
+ */
+public interface PushTransport {
+
+    /**
+     * Indica si el canal está configurado y puede enviar
+     */
+    boolean isAvailable();
+
+    /**
+     * Enviar una notificación a un lote de tokens (máximo 500) de una misma plataforma
+     *
+     * @return Resultado por token, en el mismo orden que la lista recibida
+     * @throws PushTransportException si falla el lote completo
+     */
+    PushBatchResult sendMulticast(List<String> tokens, PushPlatform platform, NotificationData notification)
+            throws PushTransportException;
+}
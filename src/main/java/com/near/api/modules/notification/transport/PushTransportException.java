@@ -0,0 +1,18 @@
+package com.near.api.modules.notification.transport;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import lombok.Getter;
+
+/**
+ * Error que afecta a un lote completo (red, throttling, credenciales...)
+ */
+@Getter
+public class PushTransportException extends Exception {
+
+    private final MessagingErrorCode errorCode;
+
+    public PushTransportException(MessagingErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+}
@@ -1,25 +1,28 @@
 package com.near.api.modules.request.controller;
 
-import com.near.api.modules.auth.entity.User;
-import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.auth.service.UserSnapshotCache;
 import com.near.api.modules.request.dto.request.*;
 import com.near.api.modules.request.dto.response.*;
 import com.near.api.modules.request.service.RequestService;
 import com.near.api.shared.dto.ApiResponse;
-import com.near.api.shared.exception.ResourceNotFoundException;
+import com.near.api.shared.dto.CursorPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @RestController
@@ -28,7 +31,7 @@ import java.util.UUID;
 public class RequestController {
 
     private final RequestService requestService;
-    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
     // ============================================
     // CREAR REQUEST
@@ -51,10 +54,20 @@ public class RequestController {
     @GetMapping("/{requestId}")
     public ResponseEntity<ApiResponse<RequestDetailResponse>> getRequest(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable UUID requestId) {
+            @PathVariable UUID requestId,
+            WebRequest webRequest) {
         UUID userId = userDetails != null ? UUID.fromString(userDetails.getUsername()) : null;
         RequestDetailResponse response = requestService.getRequestById(requestId, userId);
-        return ResponseEntity.ok(ApiResponse.success(response));
+
+        // ETag por versión de la request: si el cliente ya la tiene responde 304 sin cuerpo
+        String eTag = detailETag(response);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.success(response));
     }
 
     // ============================================
@@ -137,11 +150,10 @@ public class RequestController {
             @RequestParam Double latitude,
             @RequestParam Double longitude) {
         UUID userId = UUID.fromString(userDetails.getUsername());
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        BigDecimal reputation = userSnapshotCache.get(userId).getReputationStars();
 
         List<NearbyRequestResponse> requests = requestService.findNearbyRequests(
-                userId, latitude, longitude, user.getReputationStars());
+                userId, latitude, longitude, reputation);
 
         return ResponseEntity.ok(ApiResponse.success(requests));
     }
@@ -188,33 +200,91 @@ public class RequestController {
     // HISTORIAL
     // ============================================
     
+    /**
+     * Historial paginado por offset. Con count=false se omite el total
+     * (respuesta Slice): más barato para clientes con scroll infinito.
+     */
     @GetMapping("/my/created")
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<Page<RequestResponse>>> getMyCreatedRequests(
+    public ResponseEntity<ApiResponse<Slice<RequestResponse>>> getMyCreatedRequests(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
         UUID userId = UUID.fromString(userDetails.getUsername());
-        Page<RequestResponse> requests = requestService.getMyRequestsAsRequester(userId, pageable);
+        Slice<RequestResponse> requests = requestService.getMyRequestsAsRequester(userId, pageable, count);
         return ResponseEntity.ok(ApiResponse.success(requests));
     }
 
     @GetMapping("/my/responded")
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<Page<RequestResponse>>> getMyRespondedRequests(
+    public ResponseEntity<ApiResponse<Slice<RequestResponse>>> getMyRespondedRequests(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
         UUID userId = UUID.fromString(userDetails.getUsername());
-        Page<RequestResponse> requests = requestService.getMyRequestsAsResponder(userId, pageable);
+        Slice<RequestResponse> requests = requestService.getMyRequestsAsResponder(userId, pageable, count);
         return ResponseEntity.ok(ApiResponse.success(requests));
     }
 
     @GetMapping("/my/active")
     @Transactional(readOnly = true)
-    public ResponseEntity<ApiResponse<Page<RequestResponse>>> getMyActiveRequests(
+    public ResponseEntity<ApiResponse<Slice<RequestResponse>>> getMyActiveRequests(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
+        UUID userId = UUID.fromString(userDetails.getUsername());
+        Slice<RequestResponse> requests = requestService.getActiveRequests(userId, pageable, count);
+        return ResponseEntity.ok(ApiResponse.success(requests));
+    }
+
+    /**
+     * Historial por cursor (keyset): sin offset ni count.
+     * Primera página sin "before"; las siguientes con el nextCursor recibido.
+     */
+    @GetMapping("/my/created/history")
+    public ResponseEntity<ApiResponse<CursorPage<RequestResponse>>> getMyCreatedRequestsHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        UUID userId = UUID.fromString(userDetails.getUsername());
+        CursorPage<RequestResponse> requests = requestService.getMyRequestsAsRequesterHistory(userId, before, size);
+        return ResponseEntity.ok(ApiResponse.success(requests));
+    }
+
+    @GetMapping("/my/responded/history")
+    public ResponseEntity<ApiResponse<CursorPage<RequestResponse>>> getMyRespondedRequestsHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
+        UUID userId = UUID.fromString(userDetails.getUsername());
+        CursorPage<RequestResponse> requests = requestService.getMyRequestsAsResponderHistory(userId, before, size);
+        return ResponseEntity.ok(ApiResponse.success(requests));
+    }
+
+    @GetMapping("/my/active/history")
+    public ResponseEntity<ApiResponse<CursorPage<RequestResponse>>> getMyActiveRequestsHistory(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PageableDefault(size = 20) Pageable pageable) {
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size) {
         UUID userId = UUID.fromString(userDetails.getUsername());
-        Page<RequestResponse> requests = requestService.getActiveRequests(userId, pageable);
+        CursorPage<RequestResponse> requests = requestService.getActiveRequestsHistory(userId, before, size);
         return ResponseEntity.ok(ApiResponse.success(requests));
     }
+
+    /**
+     * ETag débil del detalle: updatedAt más lo que cambia sin tocar updatedAt
+     * (contador de vistas, reputación de los participantes, media).
+     * remainingSeconds se excluye a propósito: el cliente lo deriva de expiresAt.
+     */
+    private static String detailETag(RequestDetailResponse response) {
+        int contentHash = Objects.hash(
+                response.getStatus(),
+                response.getViewCount(),
+                response.getMedia() != null ? response.getMedia().size() : 0,
+                response.getRequester() != null ? response.getRequester().getReputationStars() : null,
+                response.getResponder() != null ? response.getResponder().getId() : null,
+                response.getResponder() != null ? response.getResponder().getReputationStars() : null);
+        long version = response.getUpdatedAt() != null ? response.getUpdatedAt().toInstant().toEpochMilli() : 0;
+        return "W/\"" + response.getId() + "-" + version + "-" + Integer.toHexString(contentHash) + "\"";
+    }
 }
@@ -0,0 +1,76 @@
+package com.near.api.modules.request.dto;
+
+import com.near.api.modules.request.entity.Request.ContentType;
+import com.near.api.modules.request.entity.Request.RequestStatus;
+import com.near.api.modules.request.entity.Request.TrustMode;
+import org.locationtech.jts.geom.Point;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección de una request para los listados del historial:
+ * solo las columnas que usa RequestResponse, con requester y responder aplanados.
+ * Los campos del responder son null mientras la request no fue aceptada.
+ */
+public interface RequestListItem {
+
+    UUID getId();
+
+    Point getLocation();
+
+    String getLocationAddress();
+
+    String getLocationReference();
+
+    Integer getRadiusMeters();
+
+    String getDescription();
+
+    ContentType getContentType();
+
+    Integer getMaxDurationMinutes();
+
+    OffsetDateTime getExpiresAt();
+
+    TrustMode getTrustMode();
+
+    OffsetDateTime getTrustModeExpiresAt();
+
+    Integer getRewardNears();
+
+    Integer getFinalReward();
+
+    BigDecimal getCommissionPercentage();
+
+    RequestStatus getStatus();
+
+    Integer getViewCount();
+
+    OffsetDateTime getCreatedAt();
+
+    Boolean getIsAnonymousRequester();
+
+    Boolean getIsAnonymousResponder();
+
+    UUID getRequesterId();
+
+    String getRequesterFullName();
+
+    String getRequesterAnonymousCode();
+
+    String getRequesterProfilePhotoUrl();
+
+    BigDecimal getRequesterReputationStars();
+
+    UUID getResponderId();
+
+    String getResponderFullName();
+
+    String getResponderAnonymousCode();
+
+    String getResponderProfilePhotoUrl();
+
+    BigDecimal getResponderReputationStars();
+}
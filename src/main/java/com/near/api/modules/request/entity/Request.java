@@ -172,6 +172,7 @@ public class Request {
 
     // === Relaciones ===
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("createdAt ASC")
     @Builder.Default
     private List<RequestMedia> media = new ArrayList<>();
 
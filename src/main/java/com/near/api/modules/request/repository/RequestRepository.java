@@ -1,9 +1,12 @@
 package com.near.api.modules.request.repository;
 
+import com.near.api.modules.request.dto.RequestListItem;
 import com.near.api.modules.request.entity.Request;
 import com.near.api.modules.request.entity.Request.RequestStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
@@ -12,7 +15,6 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -140,36 +142,104 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
 
     List<Request> findByStatusAndExpiresAtBefore(RequestStatus status, OffsetDateTime time);
 
-    // === Paginación con FETCH JOIN (para evitar N+1 y LazyInit) ===
-    // Nota: Para paginación usamos CountQuery separado
+    // === Historial: proyección de columnas de listado (sin cargar entidades) ===
+    // El orden (createdAt, id) coincide con idx_requests_requester_created / idx_requests_responder_created
 
-    @Query(value = "SELECT r FROM Request r " +
-            "LEFT JOIN FETCH r.requester " +
-            "LEFT JOIN FETCH r.responder " +
-            "WHERE r.requester.id = :requesterId " +
-            "ORDER BY r.createdAt DESC",
+    String LIST_ITEM_SELECT = "SELECT r.id AS id, r.location AS location, " +
+            "r.locationAddress AS locationAddress, r.locationReference AS locationReference, " +
+            "r.radiusMeters AS radiusMeters, r.description AS description, r.contentType AS contentType, " +
+            "r.maxDurationMinutes AS maxDurationMinutes, r.expiresAt AS expiresAt, " +
+            "r.trustMode AS trustMode, r.trustModeExpiresAt AS trustModeExpiresAt, " +
+            "r.rewardNears AS rewardNears, r.finalReward AS finalReward, " +
+            "r.commissionPercentage AS commissionPercentage, r.status AS status, " +
+            "r.viewCount AS viewCount, r.createdAt AS createdAt, " +
+            "r.isAnonymousRequester AS isAnonymousRequester, r.isAnonymousResponder AS isAnonymousResponder, " +
+            "q.id AS requesterId, q.fullName AS requesterFullName, q.anonymousCode AS requesterAnonymousCode, " +
+            "q.profilePhotoUrl AS requesterProfilePhotoUrl, q.reputationStars AS requesterReputationStars, " +
+            "p.id AS responderId, p.fullName AS responderFullName, p.anonymousCode AS responderAnonymousCode, " +
+            "p.profilePhotoUrl AS responderProfilePhotoUrl, p.reputationStars AS responderReputationStars " +
+            "FROM Request r JOIN r.requester q LEFT JOIN r.responder p ";
+
+    String LIST_ITEM_ORDER = "ORDER BY r.createdAt DESC, r.id DESC";
+
+    String BEFORE_CURSOR = "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ";
+
+    // Fase 2: columnas de listado de una página ya resuelta (el orden lo restituye el servicio)
+    @Query(LIST_ITEM_SELECT + "WHERE r.id IN :ids")
+    List<RequestListItem> findListItemsByIdIn(@Param("ids") List<UUID> ids);
+
+    // === Fase 1 del historial: solo ids (index-only scan), luego findListItemsByIdIn ===
+    // Page incluye el count; Slice lo omite y pide un elemento de más para saber si hay siguiente
+
+    String REQUESTER_IDS = "SELECT r.id FROM Request r WHERE r.requester.id = :requesterId ";
+
+    String RESPONDER_IDS = "SELECT r.id FROM Request r WHERE r.responder.id = :responderId ";
+
+    String ACTIVE_IDS = "SELECT r.id FROM Request r WHERE r.requester.id = :requesterId AND r.status IN :statuses ";
+
+    @Query(value = REQUESTER_IDS + LIST_ITEM_ORDER,
             countQuery = "SELECT COUNT(r) FROM Request r WHERE r.requester.id = :requesterId")
-    Page<Request> findByRequesterIdOrderByCreatedAtDesc(@Param("requesterId") UUID requesterId, Pageable pageable);
+    Page<UUID> findIdPageByRequesterId(@Param("requesterId") UUID requesterId, Pageable pageable);
 
-    @Query(value = "SELECT r FROM Request r " +
-            "LEFT JOIN FETCH r.requester " +
-            "LEFT JOIN FETCH r.responder " +
-            "WHERE r.responder.id = :responderId " +
-            "ORDER BY r.createdAt DESC",
+    @Query(REQUESTER_IDS + LIST_ITEM_ORDER)
+    Slice<UUID> findIdSliceByRequesterId(@Param("requesterId") UUID requesterId, Pageable pageable);
+
+    @Query(value = RESPONDER_IDS + LIST_ITEM_ORDER,
             countQuery = "SELECT COUNT(r) FROM Request r WHERE r.responder.id = :responderId")
-    Page<Request> findByResponderIdOrderByCreatedAtDesc(@Param("responderId") UUID responderId, Pageable pageable);
+    Page<UUID> findIdPageByResponderId(@Param("responderId") UUID responderId, Pageable pageable);
 
-    @Query(value = "SELECT r FROM Request r " +
-            "LEFT JOIN FETCH r.requester " +
-            "LEFT JOIN FETCH r.responder " +
-            "WHERE r.requester.id = :requesterId AND r.status IN :statuses " +
-            "ORDER BY r.createdAt DESC",
+    @Query(RESPONDER_IDS + LIST_ITEM_ORDER)
+    Slice<UUID> findIdSliceByResponderId(@Param("responderId") UUID responderId, Pageable pageable);
+
+    @Query(value = ACTIVE_IDS + LIST_ITEM_ORDER,
             countQuery = "SELECT COUNT(r) FROM Request r WHERE r.requester.id = :requesterId AND r.status IN :statuses")
-    Page<Request> findByRequesterIdAndStatusInOrderByCreatedAtDesc(
+    Page<UUID> findIdPageByRequesterIdAndStatusIn(
             @Param("requesterId") UUID requesterId,
             @Param("statuses") List<RequestStatus> statuses,
             Pageable pageable);
 
+    @Query(ACTIVE_IDS + LIST_ITEM_ORDER)
+    Slice<UUID> findIdSliceByRequesterIdAndStatusIn(
+            @Param("requesterId") UUID requesterId,
+            @Param("statuses") List<RequestStatus> statuses,
+            Pageable pageable);
+
+    // === Historial por cursor (keyset): primera página y páginas anteriores a (createdAt, id) ===
+
+    @Query(REQUESTER_IDS + LIST_ITEM_ORDER)
+    List<UUID> findIdsByRequesterId(@Param("requesterId") UUID requesterId, Limit limit);
+
+    @Query(REQUESTER_IDS + BEFORE_CURSOR + LIST_ITEM_ORDER)
+    List<UUID> findIdsByRequesterIdBefore(
+            @Param("requesterId") UUID requesterId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Query(RESPONDER_IDS + LIST_ITEM_ORDER)
+    List<UUID> findIdsByResponderId(@Param("responderId") UUID responderId, Limit limit);
+
+    @Query(RESPONDER_IDS + BEFORE_CURSOR + LIST_ITEM_ORDER)
+    List<UUID> findIdsByResponderIdBefore(
+            @Param("responderId") UUID responderId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    @Query(ACTIVE_IDS + LIST_ITEM_ORDER)
+    List<UUID> findIdsByRequesterIdAndStatusIn(
+            @Param("requesterId") UUID requesterId,
+            @Param("statuses") List<RequestStatus> statuses,
+            Limit limit);
+
+    @Query(ACTIVE_IDS + BEFORE_CURSOR + LIST_ITEM_ORDER)
+    List<UUID> findIdsByRequesterIdAndStatusInBefore(
+            @Param("requesterId") UUID requesterId,
+            @Param("statuses") List<RequestStatus> statuses,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
     // === Estadísticas ===
 
     @Query("SELECT COUNT(r) FROM Request r WHERE r.requester.id = :userId")
@@ -178,27 +248,12 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
     @Query("SELECT COUNT(r) FROM Request r WHERE r.responder.id = :userId AND r.status = 'COMPLETED'")
     Long countCompletedByResponderId(@Param("userId") UUID userId);
 
-    @Query("SELECT AVG(r.responderRating) FROM Request r WHERE r.responder.id = :userId AND r.responderRating IS NOT NULL")
-    BigDecimal calculateAverageRatingAsResponder(@Param("userId") UUID userId);
-
-    @Query("SELECT AVG(r.requesterRating) FROM Request r WHERE r.requester.id = :userId AND r.requesterRating IS NOT NULL")
-    BigDecimal calculateAverageRatingAsRequester(@Param("userId") UUID userId);
-
-    @Query("SELECT COUNT(r) FROM Request r WHERE r.responder.id = :userId AND r.responderRating IS NOT NULL")
-    Long countRatingsAsResponder(@Param("userId") UUID userId);
-
-    @Query("SELECT COUNT(r) FROM Request r WHERE r.requester.id = :userId AND r.requesterRating IS NOT NULL")
-    Long countRatingsAsRequester(@Param("userId") UUID userId);
     // === Actualización de estados ===
 
     @Modifying
-    @Query("UPDATE Request r SET r.status = 'EXPIRED' WHERE r.status = 'PENDING' AND r.expiresAt < :now")
+    @Query("UPDATE Request r SET r.status = 'EXPIRED', r.updatedAt = :now WHERE r.status = 'PENDING' AND r.expiresAt < :now")
     int expireOldRequests(@Param("now") OffsetDateTime now);
 
-    @Modifying
-    @Query("UPDATE Request r SET r.viewCount = r.viewCount + 1 WHERE r.id = :requestId")
-    void incrementViewCount(@Param("requestId") UUID requestId);
-
     // === Para buscar por ID con usuarios cargados ===
     @Query("SELECT r FROM Request r " +
             "LEFT JOIN FETCH r.requester " +
@@ -206,6 +261,16 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
             "WHERE r.id = :id")
     Optional<Request> findByIdWithUsers(@Param("id") UUID id);
 
+    /**
+     * Detalle completo en una sola query: request, requester, responder y media (ordenada por createdAt)
+     */
+    @Query("SELECT r FROM Request r " +
+            "LEFT JOIN FETCH r.requester " +
+            "LEFT JOIN FETCH r.responder " +
+            "LEFT JOIN FETCH r.media " +
+            "WHERE r.id = :id")
+    Optional<Request> findDetailById(@Param("id") UUID id);
+
     // Buscar requests ACCEPTED que pasaron su deadline (5 min sin enviar contenido)
     @Query("SELECT r FROM Request r " +
             "LEFT JOIN FETCH r.requester " +
@@ -219,4 +284,8 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
             "LEFT JOIN FETCH r.responder " +
             "WHERE r.status = 'ACCEPTED' AND r.expiresAt < :now")
     List<Request> findAcceptedAndExpired(@Param("now") OffsetDateTime now);
+
+    // Estado actual de una request (sin cargar la entidad)
+    @Query("SELECT r.status FROM Request r WHERE r.id = :id")
+    Optional<RequestStatus> findStatusById(@Param("id") UUID id);
 }
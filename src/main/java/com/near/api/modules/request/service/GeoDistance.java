@@ -0,0 +1,33 @@
+package com.near.api.modules.request.service;
+
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Distancia en metros entre dos puntos WGS84 calculada en memoria (haversine).
+ * Difiere de ST_Distance sobre geography (esferoide) en menos de 0.5%,
+ * suficiente para mostrar distancias y para las métricas de vistas.
+ */
+final class GeoDistance {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Metros entre los puntos, o null si falta alguno (x = longitud, y = latitud)
+     */
+    static Double meters(Point from, Point to) {
+        if (from == null || to == null) {
+            return null;
+        }
+        double lat1 = Math.toRadians(from.getY());
+        double lat2 = Math.toRadians(to.getY());
+        double dLat = lat2 - lat1;
+        double dLng = Math.toRadians(to.getX() - from.getX());
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
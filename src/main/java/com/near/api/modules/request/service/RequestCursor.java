@@ -0,0 +1,48 @@
+package com.near.api.modules.request.service;
+
+import com.near.api.modules.request.dto.RequestListItem;
+import com.near.api.shared.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor del historial de requests sobre (createdAt, id), el mismo orden que los índices
+ * idx_requests_requester_created / idx_requests_responder_created.
+ * Se serializa como base64 url-safe de "epochSeconds:nanos:id" para no perder
+ * los microsegundos de created_at (con milisegundos se saltarían filas).
+ */
+@Getter
+@AllArgsConstructor
+class RequestCursor {
+
+    private final OffsetDateTime createdAt;
+    private final UUID id;
+
+    static RequestCursor of(RequestListItem item) {
+        return new RequestCursor(item.getCreatedAt(), item.getId());
+    }
+
+    static RequestCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new RequestCursor(createdAt.atOffset(ZoneOffset.UTC), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
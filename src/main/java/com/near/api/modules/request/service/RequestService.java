@@ -3,8 +3,9 @@ package com.near.api.modules.request.service;
 import com.near.api.modules.request.dto.request.*;
 import com.near.api.modules.request.dto.response.*;
 import com.near.api.modules.request.entity.Request;
-import org.springframework.data.domain.Page;
+import com.near.api.shared.dto.CursorPage;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -40,11 +41,19 @@ public interface RequestService {
     void reportRequest(UUID requestId, UUID reporterId, ReportRequestDTO dto);
 
     // === Historial ===
-    Page<RequestResponse> getMyRequestsAsRequester(UUID userId, Pageable pageable);
+    // count = false omite el COUNT y devuelve un Slice (solo indica si hay página siguiente)
+    Slice<RequestResponse> getMyRequestsAsRequester(UUID userId, Pageable pageable, boolean count);
     
-    Page<RequestResponse> getMyRequestsAsResponder(UUID userId, Pageable pageable);
+    Slice<RequestResponse> getMyRequestsAsResponder(UUID userId, Pageable pageable, boolean count);
     
-    Page<RequestResponse> getActiveRequests(UUID userId, Pageable pageable);
+    Slice<RequestResponse> getActiveRequests(UUID userId, Pageable pageable, boolean count);
+
+    // === Historial por cursor (keyset, sin count) ===
+    CursorPage<RequestResponse> getMyRequestsAsRequesterHistory(UUID userId, String before, int size);
+
+    CursorPage<RequestResponse> getMyRequestsAsResponderHistory(UUID userId, String before, int size);
+
+    CursorPage<RequestResponse> getActiveRequestsHistory(UUID userId, String before, int size);
 
     void releaseExpiredAcceptedRequests();
 
@@ -1,9 +1,16 @@
 package com.near.api.modules.request.service;
 
+import com.near.api.modules.auth.dto.UserSnapshot;
 import com.near.api.modules.auth.entity.User;
 import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.auth.service.UserSnapshotCache;
 import com.near.api.modules.chat.service.ChatService;
+import com.near.api.modules.media.dto.MediaDeletionRequest;
+import com.near.api.modules.media.entity.MediaDeletionTask.MediaSource;
+import com.near.api.modules.media.service.MediaDeletionService;
+import com.near.api.modules.media.storage.MediaResourceType;
 import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.request.dto.RequestListItem;
 import com.near.api.modules.request.dto.request.*;
 import com.near.api.modules.request.dto.response.*;
 import com.near.api.modules.request.entity.*;
@@ -14,6 +21,7 @@ import com.near.api.modules.request.entity.RequestMedia.MediaType;
 import com.near.api.modules.request.entity.RequestReport.ReportType;
 import com.near.api.modules.request.repository.*;
 import com.near.api.modules.wallet.service.WalletService;
+import com.near.api.shared.dto.CursorPage;
 import com.near.api.shared.exception.BadRequestException;
 import com.near.api.shared.exception.ResourceNotFoundException;
 import com.near.api.shared.exception.UnauthorizedException;
@@ -23,8 +31,9 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,7 +42,10 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import com.near.api.modules.notification.dto.NotificationData;
 import com.near.api.modules.notification.service.NotificationService;
@@ -46,13 +58,22 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final RequestMediaRepository requestMediaRepository;
     private final RequestReportRepository requestReportRepository;
-    private final RequestViewRepository requestViewRepository;
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RequestViewTracker requestViewTracker;
     private final WalletService walletService;
     private final ChatService chatService;
     private static final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
     private static final BigDecimal MIN_TRUST_REPUTATION = new BigDecimal("4.0");
+    private static final int MAX_HISTORY_PAGE_SIZE = 50;
+    private static final List<RequestStatus> ACTIVE_STATUSES = List.of(
+            RequestStatus.PENDING,
+            RequestStatus.ACCEPTED,
+            RequestStatus.IN_PROGRESS,
+            RequestStatus.DELIVERED
+    );
     private final NotificationService notificationService;
+    private final MediaDeletionService mediaDeletionService;
 
     // ============================================
     // CREAR REQUEST
@@ -61,8 +82,7 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional
     public RequestDetailResponse createRequest(UUID requesterId, CreateRequestDTO dto) {
-        User requester = userRepository.findById(requesterId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        UserSnapshot requester = userSnapshotCache.get(requesterId);
 
         // Verificar saldo suficiente
         if (!walletService.hasEnoughBalance(requesterId, BigDecimal.valueOf(dto.getRewardNears()))) {
@@ -84,7 +104,7 @@ public class RequestServiceImpl implements RequestService {
 
         // Crear request
         Request request = Request.builder()
-                .requester(requester)
+                .requester(userRepository.getReferenceById(requesterId))
                 .location(location)
                 .locationAddress(dto.getLocationAddress())
                 .locationReference(dto.getLocationReference())
@@ -96,7 +116,7 @@ public class RequestServiceImpl implements RequestService {
                 .trustMode(trustMode)
                 .trustModeExpiresAt(trustModeExpiresAt)
                 .rewardNears(dto.getRewardNears())
-                .isAnonymousRequester(dto.getIsAnonymous() && requester.getIsAnonymous())
+                .isAnonymousRequester(dto.getIsAnonymous() && requester.isAnonymous())
                 .status(RequestStatus.PENDING)
                 .build();
 
@@ -134,7 +154,7 @@ public class RequestServiceImpl implements RequestService {
         log.info("Request creada: {} por usuario {} con {} Nears", 
                 request.getId(), requesterId, dto.getRewardNears());
 
-        return mapToDetailResponse(request, null);
+        return mapToDetailResponse(request);
     }
 
     // ============================================
@@ -142,30 +162,25 @@ public class RequestServiceImpl implements RequestService {
     // ============================================
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public RequestDetailResponse getRequestById(UUID requestId, UUID viewerId) {
-        // Usar la query con FETCH JOIN
-        Request request = requestRepository.findByIdWithUsers(requestId)
+        // Una sola query con usuarios y media (solo lectura: elegible para réplica)
+        Request request = requestRepository.findDetailById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Request no encontrada"));
 
-        // Registrar vista si es diferente usuario
-        if (viewerId != null && !viewerId.equals(request.getRequester().getId())) {
-            registerView(request, viewerId);
-        }
+        // El viewer se resuelve una sola vez y la distancia se calcula en memoria
+        UserSnapshot viewer = viewerId != null ? userSnapshotCache.find(viewerId).orElse(null) : null;
+        Double distance = viewer != null
+                ? GeoDistance.meters(viewer.getCurrentLocation(), request.getLocation())
+                : null;
 
-        Double distance = null;
-        if (viewerId != null) {
-            User viewer = userRepository.findById(viewerId).orElse(null);
-            if (viewer != null && viewer.getCurrentLocation() != null) {
-                distance = requestRepository.calculateDistance(
-                        requestId,
-                        viewer.getCurrentLocation().getY(),
-                        viewer.getCurrentLocation().getX()
-                );
-            }
+        // Registrar vista si es diferente usuario (se persiste en lote, fuera de esta transacción)
+        if (viewer != null && !viewerId.equals(request.getRequester().getId())) {
+            requestViewTracker.record(requestId, viewerId, viewer.getCurrentLocation(), distance,
+                    viewer.getReputationStars().compareTo(MIN_TRUST_REPUTATION) >= 0);
         }
 
-        return mapToDetailResponse(request, distance);
+        return mapToDetailResponse(request, request.getMedia());
     }
 
 
@@ -205,11 +220,9 @@ public class RequestServiceImpl implements RequestService {
         UUID oldResponderId = wasAccepted && request.getResponder() != null
                 ? request.getResponder().getId() : null;
 
-        User canceller = userRepository.findById(userId).orElseThrow();
-
         request.setStatus(RequestStatus.CANCELLED);
         request.setCancelledAt(OffsetDateTime.now());
-        request.setCancelledBy(canceller);
+        request.setCancelledBy(request.getRequester());
         request.setCancellationReason(reason);
 
         if (wasAccepted) {
@@ -260,8 +273,7 @@ public class RequestServiceImpl implements RequestService {
             throw new BadRequestException("No puedes aceptar tu propia request");
         }
 
-        User responder = userRepository.findById(responderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        UserSnapshot responder = userSnapshotCache.get(responderId);
 
         // Verificar trust mode
         if (request.isTrustModeActive()) {
@@ -281,11 +293,11 @@ public class RequestServiceImpl implements RequestService {
         }
 
         // Actualizar request
-        request.setResponder(responder);
+        request.setResponder(userRepository.getReferenceById(responderId));
         request.setStatus(RequestStatus.ACCEPTED);
         request.setAcceptedAt(OffsetDateTime.now());
         request.setAcceptDeadlineAt(OffsetDateTime.now().plusMinutes(5));
-        request.setIsAnonymousResponder(dto.getAcceptAnonymously() && responder.getIsAnonymous());
+        request.setIsAnonymousResponder(dto.getAcceptAnonymously() && responder.isAnonymous());
 
         request = requestRepository.save(request);
 
@@ -303,7 +315,7 @@ public class RequestServiceImpl implements RequestService {
 
         log.info("Request {} aceptada por usuario {}", requestId, responderId);
 
-        return mapToDetailResponse(request, distance);
+        return mapToDetailResponse(request);
     }
 
     // ============================================
@@ -370,7 +382,7 @@ public class RequestServiceImpl implements RequestService {
 
         log.info("Contenido entregado para request {} por usuario {}", requestId, responderId);
 
-        return mapToDetailResponse(request, null);
+        return mapToDetailResponse(request);
     }
 
     // ============================================
@@ -434,7 +446,7 @@ public class RequestServiceImpl implements RequestService {
         log.info("Request {} completada. Pago de {} Nears transferido a {}",
                 requestId, request.getFinalReward(), request.getResponder().getId());
 
-        return mapToDetailResponse(request, null);
+        return mapToDetailResponse(request);
     }
 
     @Override
@@ -456,7 +468,7 @@ public class RequestServiceImpl implements RequestService {
 
         // Penalizar al requester: -0.1 en su promedio de reputación
         try {
-            penalizeRequester(requesterId);
+            penalizeRequester(request.getRequester());
         } catch (Exception e) {
             log.warn("Error aplicando penalización al requester {}: {}", requesterId, e.getMessage());
         }
@@ -466,6 +478,7 @@ public class RequestServiceImpl implements RequestService {
             releaseRequest(request, "Entrega rechazada por el requester: " + reason);
 
             // Limpiar media entregada
+            enqueueMediaDeletion(requestId);
             requestMediaRepository.deleteByRequestId(requestId);
 
             log.info("Request {} rechazada y re-publicada con tiempo restante. Requester {} penalizado.",
@@ -481,6 +494,7 @@ public class RequestServiceImpl implements RequestService {
             );
 
             // Limpiar media
+            enqueueMediaDeletion(requestId);
             requestMediaRepository.deleteByRequestId(requestId);
 
             log.info("Request {} rechazada sin tiempo restante. Expirada y reembolsada.", requestId);
@@ -490,16 +504,28 @@ public class RequestServiceImpl implements RequestService {
         Request updatedRequest = requestRepository.findByIdWithUsers(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Request no encontrada"));
 
-        return mapToDetailResponse(updatedRequest, null);
+        return mapToDetailResponse(updatedRequest);
     }
 
     /**
-     * Penaliza al requester bajando 0.1 de su promedio de reputación
+     * Encola el borrado en Cloudinary de la media entregada (la procesa MediaDeletionService)
      */
-    private void penalizeRequester(UUID requesterId) {
-        User requester = userRepository.findById(requesterId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    private void enqueueMediaDeletion(UUID requestId) {
+        List<MediaDeletionRequest> deletions = requestMediaRepository.findByRequestIdOrderByCreatedAtAsc(requestId)
+                .stream()
+                .filter(media -> media.getPublicId() != null)
+                .map(media -> new MediaDeletionRequest(media.getPublicId(),
+                        media.getMediaType() == RequestMedia.MediaType.VIDEO
+                                ? MediaResourceType.VIDEO
+                                : MediaResourceType.IMAGE))
+                .toList();
+        mediaDeletionService.enqueue(deletions, MediaSource.REQUEST_MEDIA);
+    }
 
+    /**
+     * Penaliza al requester bajando 0.1 de su promedio de reputación
+     */
+    private void penalizeRequester(User requester) {
         BigDecimal currentReputation = requester.getReputationStars();
         BigDecimal penalty = new BigDecimal("0.1");
         BigDecimal newReputation = currentReputation.subtract(penalty);
@@ -513,7 +539,7 @@ public class RequestServiceImpl implements RequestService {
         userRepository.save(requester);
 
         log.info("Requester {} penalizado: {} → {} estrellas",
-                requesterId, currentReputation, newReputation);
+                requester.getId(), currentReputation, newReputation);
     }
 
     // ============================================
@@ -574,12 +600,12 @@ public class RequestServiceImpl implements RequestService {
         request = requestRepository.save(request);
 
         // Actualizar reputación del responder
-        updateUserReputation(request.getResponder().getId());
+        updateUserReputation(request.getResponder(), request.getResponderRating(), true);
 
         log.info("Requester {} calificó al responder {} con {} estrellas",
                 requesterId, request.getResponder().getId(), dto.getRating());
 
-        return mapToDetailResponse(request, null);
+        return mapToDetailResponse(request);
     }
 
     @Override
@@ -608,12 +634,12 @@ public class RequestServiceImpl implements RequestService {
         request = requestRepository.save(request);
 
         // Actualizar reputación del requester
-        updateUserReputation(request.getRequester().getId());
+        updateUserReputation(request.getRequester(), request.getRequesterRating(), false);
 
         log.info("Responder {} calificó al requester {} con {} estrellas",
                 responderId, request.getRequester().getId(), dto.getRating());
 
-        return mapToDetailResponse(request, null);
+        return mapToDetailResponse(request);
     }
 
     // ============================================
@@ -672,29 +698,119 @@ public class RequestServiceImpl implements RequestService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<RequestResponse> getMyRequestsAsRequester(UUID userId, Pageable pageable) {
-        return requestRepository.findByRequesterIdOrderByCreatedAtDesc(userId, pageable)
-                .map(r -> mapToResponse(r, null));
+    public Slice<RequestResponse> getMyRequestsAsRequester(UUID userId, Pageable pageable, boolean count) {
+        Slice<UUID> ids = count
+                ? requestRepository.findIdPageByRequesterId(userId, pageable)
+                : requestRepository.findIdSliceByRequesterId(userId, pageable);
+        return loadListPage(ids);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<RequestResponse> getMyRequestsAsResponder(UUID userId, Pageable pageable) {
-        return requestRepository.findByResponderIdOrderByCreatedAtDesc(userId, pageable)
-                .map(r -> mapToResponse(r, null));
+    public Slice<RequestResponse> getMyRequestsAsResponder(UUID userId, Pageable pageable, boolean count) {
+        Slice<UUID> ids = count
+                ? requestRepository.findIdPageByResponderId(userId, pageable)
+                : requestRepository.findIdSliceByResponderId(userId, pageable);
+        return loadListPage(ids);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<RequestResponse> getActiveRequests(UUID userId, Pageable pageable) {
-        List<RequestStatus> activeStatuses = List.of(
-                RequestStatus.PENDING,
-                RequestStatus.ACCEPTED,
-                RequestStatus.IN_PROGRESS,
-                RequestStatus.DELIVERED
-        );
-        return requestRepository.findByRequesterIdAndStatusInOrderByCreatedAtDesc(userId, activeStatuses, pageable)
-                .map(r -> mapToResponse(r, null));
+    public Slice<RequestResponse> getActiveRequests(UUID userId, Pageable pageable, boolean count) {
+        Slice<UUID> ids = count
+                ? requestRepository.findIdPageByRequesterIdAndStatusIn(userId, ACTIVE_STATUSES, pageable)
+                : requestRepository.findIdSliceByRequesterIdAndStatusIn(userId, ACTIVE_STATUSES, pageable);
+        return loadListPage(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RequestResponse> getMyRequestsAsRequesterHistory(UUID userId, String before, int size) {
+        size = clampHistorySize(size);
+        Limit limit = Limit.of(size + 1);
+        List<UUID> ids;
+        if (before == null || before.isBlank()) {
+            ids = requestRepository.findIdsByRequesterId(userId, limit);
+        } else {
+            RequestCursor cursor = RequestCursor.decode(before);
+            ids = requestRepository.findIdsByRequesterIdBefore(
+                    userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+        return toCursorPage(ids, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RequestResponse> getMyRequestsAsResponderHistory(UUID userId, String before, int size) {
+        size = clampHistorySize(size);
+        Limit limit = Limit.of(size + 1);
+        List<UUID> ids;
+        if (before == null || before.isBlank()) {
+            ids = requestRepository.findIdsByResponderId(userId, limit);
+        } else {
+            RequestCursor cursor = RequestCursor.decode(before);
+            ids = requestRepository.findIdsByResponderIdBefore(
+                    userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+        return toCursorPage(ids, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RequestResponse> getActiveRequestsHistory(UUID userId, String before, int size) {
+        size = clampHistorySize(size);
+        Limit limit = Limit.of(size + 1);
+        List<UUID> ids;
+        if (before == null || before.isBlank()) {
+            ids = requestRepository.findIdsByRequesterIdAndStatusIn(userId, ACTIVE_STATUSES, limit);
+        } else {
+            RequestCursor cursor = RequestCursor.decode(before);
+            ids = requestRepository.findIdsByRequesterIdAndStatusInBefore(
+                    userId, ACTIVE_STATUSES, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+        return toCursorPage(ids, size);
+    }
+
+    private int clampHistorySize(int size) {
+        return Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    // Se pidió uno de más: si llegó, hay otra página y el cursor apunta al último devuelto
+    private CursorPage<RequestResponse> toCursorPage(List<UUID> ids, int size) {
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+
+        List<RequestListItem> items = loadListItems(ids);
+        return CursorPage.<RequestResponse>builder()
+                .content(items.stream().map(this::mapListItemToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore && !items.isEmpty() ? RequestCursor.of(items.get(items.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Page o Slice según la fase 1; map conserva el tipo (y el total, si lo hay)
+    private Slice<RequestResponse> loadListPage(Slice<UUID> ids) {
+        Map<UUID, RequestResponse> responses = loadListItems(ids.getContent()).stream()
+                .collect(Collectors.toMap(RequestListItem::getId, this::mapListItemToResponse));
+        return ids.map(responses::get);
+    }
+
+    /**
+     * Fase 2 del historial: una sola query IN (:ids) con las columnas de listado,
+     * devuelta en el orden de la fase 1. El costo depende del tamaño de página, no de su profundidad.
+     */
+    private List<RequestListItem> loadListItems(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, RequestListItem> byId = requestRepository.findListItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(RequestListItem::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     // ============================================
@@ -849,100 +965,89 @@ public class RequestServiceImpl implements RequestService {
         return geometryFactory.createPoint(new Coordinate(longitude, latitude));
     }
 
-    private void registerView(Request request, UUID viewerId) {
-        if (!requestViewRepository.existsByRequestIdAndUserId(request.getId(), viewerId)) {
-            User viewer = userRepository.findById(viewerId).orElse(null);
-            if (viewer != null) {
-                Double distance = null;
-                Point userLocation = viewer.getCurrentLocation();
-
-                if (userLocation != null) {
-                    distance = requestRepository.calculateDistance(
-                            request.getId(),
-                            userLocation.getY(),
-                            userLocation.getX()
-                    );
-                }
-
-                RequestView view = RequestView.builder()
-                        .request(request)
-                        .user(viewer)
-                        .userLocation(userLocation)
-                        .distanceMeters(distance != null ? distance.intValue() : null)
-                        .wasTrustEligible(viewer.getReputationStars().compareTo(MIN_TRUST_REPUTATION) >= 0)
-                        .build();
-
-                requestViewRepository.save(view);
-                requestRepository.incrementViewCount(request.getId());
-            }
+    /**
+     * Suma la calificación a los agregados del usuario con un UPDATE atómico (O(1))
+     * y refleja el nuevo promedio en la entidad para la respuesta.
+     */
+    private void updateUserReputation(User user, BigDecimal rating, boolean asResponder) {
+        if (asResponder) {
+            userRepository.addRatingAsResponder(user.getId(), rating);
+        } else {
+            userRepository.addRatingAsRequester(user.getId(), rating);
         }
-    }
-
-    private void updateUserReputation(UUID userId) {
-        BigDecimal avgAsResponder = requestRepository.calculateAverageRatingAsResponder(userId);
-        BigDecimal avgAsRequester = requestRepository.calculateAverageRatingAsRequester(userId);
-        Long countAsResponder = requestRepository.countRatingsAsResponder(userId);
-        Long countAsRequester = requestRepository.countRatingsAsRequester(userId);
-
-        long totalCount = (countAsResponder != null ? countAsResponder : 0)
-                + (countAsRequester != null ? countAsRequester : 0);
-
-        if (totalCount > 0) {
-            // Promedio ponderado de ambos roles
-            double sumResponder = (avgAsResponder != null ? avgAsResponder.doubleValue() : 0)
-                    * (countAsResponder != null ? countAsResponder : 0);
-            double sumRequester = (avgAsRequester != null ? avgAsRequester.doubleValue() : 0)
-                    * (countAsRequester != null ? countAsRequester : 0);
 
-            BigDecimal combinedAvg = BigDecimal.valueOf((sumResponder + sumRequester) / totalCount)
-                    .setScale(2, java.math.RoundingMode.HALF_UP);
-
-            User user = userRepository.findById(userId).orElseThrow();
-            user.setReputationStars(combinedAvg);
-            user.setTotalRatingsReceived((int) totalCount);
-            userRepository.save(user);
+        // La fila queda bloqueada por el UPDATE hasta el commit: estos valores no cambian antes del flush
+        userRepository.findReputationById(user.getId()).ifPresent(summary -> {
+            user.setReputationStars(summary.getReputationStars());
+            user.setTotalRatingsReceived(summary.getTotalRatingsReceived());
 
             log.info("Reputación actualizada para usuario {}: {} estrellas ({} valoraciones)",
-                    userId, combinedAvg, totalCount);
-        }
+                    user.getId(), summary.getReputationStars(), summary.getTotalRatingsReceived());
+        });
     }
 
     // ============================================
     // MAPPERS
     // ============================================
     
-    private RequestResponse mapToResponse(Request request, Double distance) {
-        long remainingSeconds = ChronoUnit.SECONDS.between(OffsetDateTime.now(), request.getExpiresAt());
+    private RequestResponse mapListItemToResponse(RequestListItem item) {
+        OffsetDateTime now = OffsetDateTime.now();
+        long remainingSeconds = ChronoUnit.SECONDS.between(now, item.getExpiresAt());
+        boolean trustModeActive = item.getTrustMode() == TrustMode.TRUST
+                && item.getTrustModeExpiresAt() != null
+                && now.isBefore(item.getTrustModeExpiresAt());
+        boolean anonymousRequester = Boolean.TRUE.equals(item.getIsAnonymousRequester());
+        boolean anonymousResponder = Boolean.TRUE.equals(item.getIsAnonymousResponder());
+
+        RequestResponse.ResponderInfo responder = null;
+        if (item.getResponderId() != null) {
+            responder = RequestResponse.ResponderInfo.builder()
+                    .id(item.getResponderId())
+                    .displayName(anonymousResponder ?
+                            "Anónimo " + item.getResponderAnonymousCode() : item.getResponderFullName())
+                    .profilePhotoUrl(anonymousResponder ? null : item.getResponderProfilePhotoUrl())
+                    .reputationStars(item.getResponderReputationStars())
+                    .isAnonymous(item.getIsAnonymousResponder())
+                    .build();
+        }
 
         return RequestResponse.builder()
-                .id(request.getId())
-                .latitude(request.getLocation().getY())
-                .longitude(request.getLocation().getX())
-                .locationAddress(request.getLocationAddress())
-                .locationReference(request.getLocationReference())
-                .radiusMeters(request.getRadiusMeters())
-                .description(request.getDescription())
-                .contentType(request.getContentType())
-                .maxDurationMinutes(request.getMaxDurationMinutes())
-                .expiresAt(request.getExpiresAt())
+                .id(item.getId())
+                .latitude(item.getLocation().getY())
+                .longitude(item.getLocation().getX())
+                .locationAddress(item.getLocationAddress())
+                .locationReference(item.getLocationReference())
+                .radiusMeters(item.getRadiusMeters())
+                .description(item.getDescription())
+                .contentType(item.getContentType())
+                .maxDurationMinutes(item.getMaxDurationMinutes())
+                .expiresAt(item.getExpiresAt())
                 .remainingSeconds(Math.max(0, remainingSeconds))
-                .trustMode(request.getTrustMode())
-                .isTrustModeActive(request.isTrustModeActive())
-                .rewardNears(request.getRewardNears())
-                .finalReward(request.getFinalReward())
-                .commissionPercentage(request.getCommissionPercentage())
-                .status(request.getStatus())
-                .requester(mapRequesterInfo(request))
-                .responder(request.getResponder() != null ? mapResponderInfo(request) : null)
-                .viewCount(request.getViewCount())
-                .distanceMeters(distance)
-                .createdAt(request.getCreatedAt())
+                .trustMode(item.getTrustMode())
+                .isTrustModeActive(trustModeActive)
+                .rewardNears(item.getRewardNears())
+                .finalReward(item.getFinalReward())
+                .commissionPercentage(item.getCommissionPercentage())
+                .status(item.getStatus())
+                .requester(RequestResponse.RequesterInfo.builder()
+                        .id(item.getRequesterId())
+                        .displayName(anonymousRequester ?
+                                "Anónimo " + item.getRequesterAnonymousCode() : item.getRequesterFullName())
+                        .profilePhotoUrl(anonymousRequester ? null : item.getRequesterProfilePhotoUrl())
+                        .reputationStars(item.getRequesterReputationStars())
+                        .isAnonymous(item.getIsAnonymousRequester())
+                        .build())
+                .responder(responder)
+                .viewCount(item.getViewCount())
+                .createdAt(item.getCreatedAt())
                 .build();
     }
 
-    private RequestDetailResponse mapToDetailResponse(Request request, Double distance) {
-        List<RequestMedia> mediaList = requestMediaRepository.findByRequestIdOrderByCreatedAtAsc(request.getId());
+    private RequestDetailResponse mapToDetailResponse(Request request) {
+        return mapToDetailResponse(request, requestMediaRepository.findByRequestIdOrderByCreatedAtAsc(request.getId()));
+    }
 
+    private RequestDetailResponse mapToDetailResponse(Request request, List<RequestMedia> mediaList) {
         long remainingSeconds = ChronoUnit.SECONDS.between(OffsetDateTime.now(), request.getExpiresAt());
 
         return RequestDetailResponse.builder()
@@ -1035,30 +1140,6 @@ public class RequestServiceImpl implements RequestService {
     }
 
 
-    private RequestResponse.RequesterInfo mapRequesterInfo(Request request) {
-        User requester = request.getRequester();
-        return RequestResponse.RequesterInfo.builder()
-                .id(requester.getId())
-                .displayName(request.getIsAnonymousRequester() ?
-                        "Anónimo " + requester.getAnonymousCode() : requester.getFullName())
-                .profilePhotoUrl(request.getIsAnonymousRequester() ? null : requester.getProfilePhotoUrl())
-                .reputationStars(requester.getReputationStars())
-                .isAnonymous(request.getIsAnonymousRequester())
-                .build();
-    }
-
-    private RequestResponse.ResponderInfo mapResponderInfo(Request request) {
-        User responder = request.getResponder();
-        return RequestResponse.ResponderInfo.builder()
-                .id(responder.getId())
-                .displayName(request.getIsAnonymousResponder() ?
-                        "Anónimo " + responder.getAnonymousCode() : responder.getFullName())
-                .profilePhotoUrl(request.getIsAnonymousResponder() ? null : responder.getProfilePhotoUrl())
-                .reputationStars(responder.getReputationStars())
-                .isAnonymous(request.getIsAnonymousResponder())
-                .build();
-    }
-
     private RequestDetailResponse.UserInfo mapUserInfo(User user, Boolean isAnonymous) {
         return RequestDetailResponse.UserInfo.builder()
                 .id(user.getId())
@@ -0,0 +1,207 @@
+package com.near.api.modules.request.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro asíncrono de vistas de requests.
+ *
+ * getRequestById solo anota la vista en memoria; el flush periódico inserta las
+ * filas de request_views en lote (ON CONFLICT DO NOTHING sobre (request_id, user_id))
+ * y suma a requests.view_count únicamente las vistas que realmente se insertaron,
+ * agrupadas por request. Un set LRU acotado de vistas recientes evita volver a
+ * encolar la misma (request, usuario); la restricción única es la deduplicación final.
+ */
+@Component
+@Slf4j
+public class RequestViewTracker {
+
+    private static final String INSERT_VIEW_SQL = """
+        INSERT INTO request_views (id, request_id, user_id, user_location, distance_meters, was_trust_eligible, viewed_at)
+        VALUES (?, ?, ?, ST_SetSRID(ST_MakePoint(?::float8, ?::float8), 4326)::geography, ?, ?, ?)
+        ON CONFLICT (request_id, user_id) DO NOTHING
+        """;
+
+    private static final String INCREMENT_VIEW_COUNT_SQL =
+            "UPDATE requests SET view_count = COALESCE(view_count, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${request.views.max-pending:50000}")
+    private int maxPending;
+
+    @Value("${request.views.dedup-size:100000}")
+    private int dedupSize;
+
+    // "requestId:userId" -> vista pendiente de persistir
+    private final Map<String, PendingView> pending = new ConcurrentHashMap<>();
+
+    // Vistas ya encoladas recientemente (LRU acotado, access-order)
+    private final Map<String, Boolean> recentlySeen = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > dedupSize;
+        }
+    };
+
+    public RequestViewTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Anotar la vista de un usuario (sin tocar la base de datos)
+     */
+    public void record(UUID requestId, UUID userId, Point userLocation, Double distanceMeters,
+                       boolean trustEligible) {
+        String key = key(requestId, userId);
+
+        // Solo se marca como vista si entra en el buffer: una vista descartada puede volver a registrarse
+        synchronized (recentlySeen) {
+            if (recentlySeen.get(key) != null) {
+                return;
+            }
+            if (pending.size() >= maxPending) {
+                log.warn("Buffer de vistas lleno ({}), se descarta la vista de {} en {}", maxPending, userId, requestId);
+                return;
+            }
+            recentlySeen.put(key, Boolean.TRUE);
+        }
+
+        pending.putIfAbsent(key, new PendingView(requestId, userId, userLocation,
+                distanceMeters != null ? distanceMeters.intValue() : null, trustEligible, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${request.views.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingView> views = new ArrayList<>();
+        pending.forEach((key, view) -> {
+            if (pending.remove(key, view)) {
+                views.add(view);
+            }
+        });
+
+        // Otro flush (p. ej. el de shutdown) pudo vaciar el buffer entre medio
+        if (views.isEmpty()) {
+            return;
+        }
+
+        try {
+            int inserted = transactionTemplate.execute(status -> persist(views));
+            log.debug("Vistas de requests persistidas: {} de {} pendientes", inserted, views.size());
+        } catch (Exception e) {
+            log.error("Error persistiendo {} vistas de requests: {}", views.size(), e.getMessage());
+            requeue(views);
+        }
+    }
+
+    /**
+     * Devuelve al buffer las vistas de un flush fallido (el INSERT es idempotente, se reintentan
+     * en el próximo ciclo). Las que ya no entran se desmarcan para que puedan volver a registrarse.
+     */
+    private void requeue(List<PendingView> views) {
+        int dropped = 0;
+        for (PendingView view : views) {
+            String key = key(view.getRequestId(), view.getUserId());
+            synchronized (recentlySeen) {
+                if (pending.size() < maxPending) {
+                    pending.putIfAbsent(key, view);
+                } else {
+                    recentlySeen.remove(key);
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Buffer de vistas lleno al reintentar: {} vistas descartadas", dropped);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private int persist(List<PendingView> views) {
+        if (views.isEmpty()) {
+            return 0;
+        }
+
+        int[] results = jdbcTemplate.batchUpdate(INSERT_VIEW_SQL, views, views.size(), (ps, view) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, view.getRequestId());
+            ps.setObject(3, view.getUserId());
+            if (view.getUserLocation() != null) {
+                ps.setDouble(4, view.getUserLocation().getX());
+                ps.setDouble(5, view.getUserLocation().getY());
+            } else {
+                ps.setNull(4, Types.DOUBLE);
+                ps.setNull(5, Types.DOUBLE);
+            }
+            if (view.getDistanceMeters() != null) {
+                ps.setInt(6, view.getDistanceMeters());
+            } else {
+                ps.setNull(6, Types.INTEGER);
+            }
+            ps.setBoolean(7, view.isTrustEligible());
+            ps.setTimestamp(8, Timestamp.from(view.getViewedAt()));
+        })[0];
+
+        // Solo cuentan las filas insertadas (las repetidas devuelven 0)
+        Map<UUID, Integer> insertedByRequest = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] > 0) {
+                insertedByRequest.merge(views.get(i).getRequestId(), 1, Integer::sum);
+            }
+        }
+
+        if (!insertedByRequest.isEmpty()) {
+            List<Object[]> increments = insertedByRequest.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                    .toList();
+            jdbcTemplate.batchUpdate(INCREMENT_VIEW_COUNT_SQL, increments);
+        }
+
+        return insertedByRequest.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static String key(UUID requestId, UUID userId) {
+        return requestId + ":" + userId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingView {
+        private final UUID requestId;
+        private final UUID userId;
+        private final Point userLocation;
+        private final Integer distanceMeters;
+        private final boolean trustEligible;
+        private final Instant viewedAt;
+    }
+}
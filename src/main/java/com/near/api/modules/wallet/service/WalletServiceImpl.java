@@ -1,7 +1,7 @@
 package com.near.api.modules.wallet.service;
 
-import com.near.api.modules.auth.entity.User;
 import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.auth.service.UserSnapshotCache;
 import com.near.api.modules.wallet.dto.request.RechargeRequest;
 import com.near.api.modules.wallet.dto.request.TransferRequest;
 import com.near.api.modules.wallet.dto.request.WithdrawalRequest;
@@ -35,6 +35,7 @@ public class WalletServiceImpl implements WalletService {
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
     // Tasa de conversión: 1 Near = 1.00 (unidad monetaria base)
     private static final BigDecimal NEAR_TO_CURRENCY = BigDecimal.ONE;
@@ -45,6 +46,7 @@ public class WalletServiceImpl implements WalletService {
     // === Wallet ===
 
     @Override
+    @Transactional(readOnly = true)
     public WalletResponse getWallet(UUID userId) {
         Wallet wallet = walletRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Wallet no encontrada"));
@@ -69,11 +71,11 @@ public class WalletServiceImpl implements WalletService {
     }
 
     private Wallet createWallet(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+        // Valida que exista (snapshot compartido del request) y asocia sin cargar la entidad
+        userSnapshotCache.get(userId);
 
         Wallet wallet = Wallet.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .totalBalance(BigDecimal.ZERO)
                 .withdrawableBalance(BigDecimal.ZERO)
                 .frozenBalance(BigDecimal.ZERO)
@@ -294,6 +296,7 @@ public class WalletServiceImpl implements WalletService {
     // === Historial ===
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactionHistory(UUID userId, Pageable pageable) {
         Wallet wallet = walletRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Wallet no encontrada"));
@@ -303,6 +306,7 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getRechargeHistory(UUID userId, Pageable pageable) {
         Wallet wallet = walletRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Wallet no encontrada"));
@@ -312,6 +316,7 @@ public class WalletServiceImpl implements WalletService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> getWithdrawalHistory(UUID userId, Pageable pageable) {
         Wallet wallet = walletRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Wallet no encontrada"));
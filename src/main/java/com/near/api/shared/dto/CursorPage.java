@@ -0,0 +1,27 @@
+package com.near.api.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página con paginación por cursor (keyset): sin offset ni count total.
+ * nextCursor es opaco para el cliente; se envía tal cual para pedir la página siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,40 @@
+// ============================================
+// Índices de chat en MongoDB (mongosh)
+// Ejecutar: mongosh "$MONGO_URI" src/main/resources/db/chat_mongo_indexes.js
+// ============================================
+
+// El TTL pasa de expires_at a purge_at: lo setea el job de expiración después de
+// procesar la conversación, para que MongoDB no borre nada que el job no haya visto.
+function dropTtlOnExpiresAt(collection) {
+    db.getCollection(collection).getIndexes()
+        .filter(idx => idx.key.expires_at !== undefined && idx.expireAfterSeconds !== undefined)
+        .forEach(idx => db.getCollection(collection).dropIndex(idx.name));
+}
+
+dropTtlOnExpiresAt("conversations");
+dropTtlOnExpiresAt("messages");
+dropTtlOnExpiresAt("inbox_entries");
+
+// Conversaciones
+db.conversations.createIndex({ purge_at: 1 }, { name: "purge_at", expireAfterSeconds: 0 });
+db.conversations.createIndex({ status: 1, expires_at: 1 }, { name: "idx_status_expires" });
+
+// Mensajes
+db.messages.createIndex({ purge_at: 1 }, { name: "purge_at", expireAfterSeconds: 0 });
+
+// Inbox por usuario
+db.inbox_entries.createIndex({ purge_at: 1 }, { name: "purge_at", expireAfterSeconds: 0 });
+db.inbox_entries.createIndex({ conversation_id: 1 }, { name: "conversation_id" });
+db.inbox_entries.createIndex({ user_id: 1, sort_at: -1 }, { name: "idx_inbox_user_sort" });
+db.inbox_entries.createIndex({ user_id: 1, status: 1, sort_at: -1 }, { name: "idx_inbox_user_status_sort" });
+db.inbox_entries.createIndex({ user_id: 1, unread_count: 1 }, { name: "idx_inbox_user_unread" });
+
+// Un solo mensaje CONVERSATION_EXPIRED por conversación (el job de expiración hace upsert y puede reintentar)
+db.messages.createIndex(
+    { conversation_id: 1, "content.system_event.event_type": 1 },
+    {
+        name: "uq_conversation_expired_event",
+        unique: true,
+        partialFilterExpression: { "content.system_event.event_type": "CONVERSATION_EXPIRED" }
+    }
+);
@@ -0,0 +1,21 @@
+-- ============================================
+-- Cola persistente de borrado de media en Cloudinary
+-- (conversaciones expiradas, entregas rechazadas)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS media_deletion_tasks (
+    id                UUID PRIMARY KEY,
+    public_id         VARCHAR(255) NOT NULL UNIQUE,
+    resource_type     VARCHAR(10)  NOT NULL,
+    source            VARCHAR(20)  NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at   TIMESTAMPTZ  NOT NULL,
+    locked_until      TIMESTAMPTZ,
+    last_error        TEXT,
+    created_at        TIMESTAMPTZ,
+    updated_at        TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_media_deletion_tasks_due
+    ON media_deletion_tasks (status, next_attempt_at);
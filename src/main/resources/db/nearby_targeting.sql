@@ -0,0 +1,10 @@
+-- ============================================
+-- Índices para el ranking de destinatarios NEARBY_REQUEST
+-- (historial de aceptación por usuario)
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_requests_responder_id
+    ON requests (responder_id);
+
+CREATE INDEX IF NOT EXISTS idx_request_views_user_id
+    ON request_views (user_id);
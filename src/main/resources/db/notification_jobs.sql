@@ -0,0 +1,23 @@
+-- ============================================
+-- Cola persistente de notificaciones push (reintentos + dead-letter)
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS notification_jobs (
+    id                UUID PRIMARY KEY,
+    notification_type VARCHAR(30)  NOT NULL,
+    title             VARCHAR(255),
+    body              TEXT,
+    data              JSONB,
+    tokens            JSONB        NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    max_attempts      INTEGER      NOT NULL,
+    next_attempt_at   TIMESTAMPTZ  NOT NULL,
+    locked_until      TIMESTAMPTZ,
+    last_error        TEXT,
+    created_at        TIMESTAMPTZ,
+    updated_at        TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_jobs_due
+    ON notification_jobs (status, next_attempt_at);
@@ -0,0 +1,10 @@
+-- ============================================
+-- Índices para el historial de requests por cursor
+-- (ORDER BY created_at DESC, id DESC filtrando por requester o responder)
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created
+    ON requests (requester_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_responder_created
+    ON requests (responder_id, created_at DESC, id DESC);
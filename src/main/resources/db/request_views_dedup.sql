@@ -0,0 +1,7 @@
+-- ============================================
+-- Deduplicación de vistas de requests
+-- (RequestViewTracker inserta en lote con ON CONFLICT (request_id, user_id))
+-- ============================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_request_views_request_user
+    ON request_views (request_id, user_id);
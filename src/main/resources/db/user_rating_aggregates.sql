@@ -0,0 +1,32 @@
+-- ============================================
+-- Agregados de calificaciones por rol en users
+-- (reputación incremental: cada calificación es un UPDATE O(1))
+-- ============================================
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_sum_as_responder   NUMERIC(12,2) NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_count_as_responder INTEGER       NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_sum_as_requester   NUMERIC(12,2) NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS rating_count_as_requester INTEGER       NOT NULL DEFAULT 0;
+
+-- Backfill desde el historial de requests (ejecutar una vez, con la API detenida
+-- o antes de desplegar la versión que empieza a usar estas columnas)
+UPDATE users u SET
+    rating_sum_as_responder   = COALESCE(resp.rating_sum, 0),
+    rating_count_as_responder = COALESCE(resp.rating_count, 0),
+    rating_sum_as_requester   = COALESCE(req.rating_sum, 0),
+    rating_count_as_requester = COALESCE(req.rating_count, 0)
+FROM users base
+LEFT JOIN (
+    SELECT responder_id AS user_id, SUM(responder_rating) AS rating_sum, COUNT(*) AS rating_count
+    FROM requests
+    WHERE responder_rating IS NOT NULL
+    GROUP BY responder_id
+) resp ON resp.user_id = base.id
+LEFT JOIN (
+    SELECT requester_id AS user_id, SUM(requester_rating) AS rating_sum, COUNT(*) AS rating_count
+    FROM requests
+    WHERE requester_rating IS NOT NULL
+    GROUP BY requester_id
+) req ON req.user_id = base.id
+WHERE u.id = base.id
+  AND (resp.user_id IS NOT NULL OR req.user_id IS NOT NULL);
@@ -0,0 +1,146 @@
+package com.near.api.config;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.document.Conversation.ConversationStatus;
+import com.near.api.modules.chat.document.Conversation.ParticipantRole;
+import com.near.api.modules.chat.service.ChatSessionRegistry;
+import com.near.api.modules.chat.service.ConversationCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Lista blanca de destinos STOMP: solo topics y acciones de chat de conversaciones
+ * en las que participa el usuario, y sus propias colas /user/queue.
+ */
+class ChatSubscriptionInterceptorTest {
+
+    private static final String CONVERSATION_ID = "65f0c0ffee0000000000abcd";
+
+    private final UUID participantId = UUID.randomUUID();
+    private final ConversationCache conversationCache = mock(ConversationCache.class);
+    private final ChatSessionRegistry chatSessionRegistry = new ChatSessionRegistry();
+    private final ChatSubscriptionInterceptor interceptor =
+            new ChatSubscriptionInterceptor(conversationCache, chatSessionRegistry);
+
+    @BeforeEach
+    void setUp() {
+        Conversation conversation = Conversation.builder()
+                .id(CONVERSATION_ID)
+                .participants(List.of(Conversation.Participant.builder()
+                        .userId(participantId)
+                        .role(ParticipantRole.REQUESTER)
+                        .build()))
+                .status(ConversationStatus.ACTIVE)
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+        when(conversationCache.get(CONVERSATION_ID)).thenReturn(Optional.of(conversation));
+    }
+
+    @Test
+    void participantCanSubscribeToConversationTopics() {
+        for (String event : List.of("messages", "typing", "read", "media-unlocked")) {
+            Message<?> frame = frame(StompCommand.SUBSCRIBE, "/topic/chat/" + CONVERSATION_ID + "/" + event, participantId);
+            assertSame(frame, interceptor.preSend(frame, null), event);
+        }
+    }
+
+    @Test
+    void presenceAndTipsConfigTopicsAreAllowed() {
+        // Los publica ChatWebSocketController; si el filtro los descarta, los clientes nunca los reciben
+        for (String event : List.of("presence", "tips-config")) {
+            String destination = "/topic/chat/" + CONVERSATION_ID + "/" + event;
+            Message<?> frame = frame(StompCommand.SUBSCRIBE, destination, participantId);
+            assertSame(frame, interceptor.preSend(frame, null), destination);
+            assertNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination, UUID.randomUUID()), null), destination);
+        }
+    }
+
+    @Test
+    void participantCanSendToConversationActions() {
+        Message<?> frame = frame(StompCommand.SEND, "/app/chat/" + CONVERSATION_ID + "/send-text", participantId);
+
+        assertSame(frame, interceptor.preSend(frame, null));
+    }
+
+    @Test
+    void anyUserCanSubscribeToOwnQueues() {
+        Message<?> frame = frame(StompCommand.SUBSCRIBE, "/user/queue/message-sent", UUID.randomUUID());
+
+        assertSame(frame, interceptor.preSend(frame, null));
+    }
+
+    @Test
+    void nonParticipantIsRejected() {
+        UUID stranger = UUID.randomUUID();
+
+        assertNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/" + CONVERSATION_ID + "/messages", stranger), null));
+        assertNull(interceptor.preSend(frame(StompCommand.SEND, "/app/chat/" + CONVERSATION_ID + "/send-text", stranger), null));
+    }
+
+    @Test
+    void expiredConversationIsRejected() {
+        Conversation expired = conversationCache.get(CONVERSATION_ID).orElseThrow();
+        expired.setStatus(ConversationStatus.EXPIRED);
+
+        assertNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/chat/" + CONVERSATION_ID + "/messages", participantId), null));
+    }
+
+    @Test
+    void wildcardDestinationsAreRejected() {
+        for (String destination : List.of("/topic/**", "/topic/chat/*", "/topic/chat/*/messages",
+                "/topic/chat/" + CONVERSATION_ID + "/*", "/topic/chat/{id}/messages", "/topic/chat/?/messages",
+                "/user/queue/*")) {
+            assertNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination, participantId), null), destination);
+        }
+        verifyNoInteractions(conversationCache);
+    }
+
+    @Test
+    void destinationsOutsideTheAllowListAreRejected() {
+        for (String destination : List.of("/topic/simp-user-registry", "/topic/unresolved-user-destination",
+                "/queue/errors", "/topic/chat/" + CONVERSATION_ID, "/topic/chat/" + CONVERSATION_ID + "/unknown",
+                "/app/chat/" + CONVERSATION_ID + "/send-text")) {
+            assertNull(interceptor.preSend(frame(StompCommand.SUBSCRIBE, destination, participantId), null), destination);
+        }
+    }
+
+    @Test
+    void directSendToBrokerIsRejected() {
+        // Un SEND a /topic publicaría en la conversación sin pasar por los controladores
+        assertNull(interceptor.preSend(frame(StompCommand.SEND, "/topic/chat/" + CONVERSATION_ID + "/messages", participantId), null));
+        assertNull(interceptor.preSend(frame(StompCommand.SEND, "/user/queue/message-sent", participantId), null));
+    }
+
+    @Test
+    void otherCommandsPassThrough() {
+        Message<?> frame = frame(StompCommand.UNSUBSCRIBE, null, participantId);
+
+        assertSame(frame, interceptor.preSend(frame, null));
+    }
+
+    private Message<?> frame(StompCommand command, String destination, UUID userId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("session-1");
+        accessor.setSessionAttributes(new HashMap<>());
+        accessor.setUser(new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,240 @@
+package com.near.api.infrastructure.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Enrutamiento primario/réplica.
+ * Los casos con mocks corren siempre; el de PostgreSQL usa dos schemas de una base local:
+ *   mvn test -Dtest=ReadReplicaRoutingDataSourceTest -Dreplica.it=true
+ *   (opcionales: -Dreplica.it.url=jdbc:postgresql://localhost:5432/postgres
+ *    -Dreplica.it.username=postgres -Dreplica.it.password=postgres)
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaA = mock(DataSource.class);
+    private final DataSource replicaB = mock(DataSource.class);
+
+    @AfterEach
+    void clearContext() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasRoundRobin() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA, replicaB), 3000);
+        inTransaction(true);
+
+        routing.getConnection();
+        routing.getConnection();
+        routing.getConnection();
+
+        verify(replicaA, times(2)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void writesAndNonTransactionalCodeGoToPrimary() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA), 3000);
+
+        routing.getConnection();
+        inTransaction(false);
+        routing.getConnection();
+
+        verify(primary, times(2)).getConnection();
+        verify(replicaA, never()).getConnection();
+    }
+
+    @Test
+    void userReadsFromPrimaryRightAfterWriting() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA), 60_000);
+        authenticateAs("user-1");
+
+        inTransaction(false);
+        routing.getConnection();
+        commit();
+        inTransaction(true);
+        routing.getConnection();
+
+        verify(primary, times(2)).getConnection();
+        verify(replicaA, never()).getConnection();
+
+        // Otro usuario sin escrituras recientes sí lee de la réplica
+        authenticateAs("user-2");
+        routing.getConnection();
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    void readYourWritesWindowExpires() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA), 0);
+        authenticateAs("user-1");
+
+        inTransaction(false);
+        routing.getConnection();
+        commit();
+        Thread.sleep(2);
+        inTransaction(true);
+        routing.getConnection();
+
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    void writeIsMarkedOnCommitNotWhenTheConnectionIsTaken() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA), 60_000);
+        authenticateAs("user-1");
+
+        // La transacción de escritura sigue abierta: todavía no hay nada que leer del primario
+        inTransaction(false);
+        routing.getConnection();
+        routing.getConnection();
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        RecentWriteTracker tracker = (RecentWriteTracker) ReflectionTestUtils.getField(routing, "recentWriteTracker");
+        assertFalse(tracker.wroteRecently("user-1"));
+
+        commit();
+        assertTrue(tracker.wroteRecently("user-1"));
+    }
+
+    @Test
+    void rolledBackWriteIsNotMarked() throws Exception {
+        ReadReplicaRoutingDataSource routing = routing(List.of(replicaA), 60_000);
+        authenticateAs("user-1");
+
+        inTransaction(false);
+        routing.getConnection();
+        TransactionSynchronizationManager.clearSynchronization();
+        inTransaction(true);
+        routing.getConnection();
+
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    void writeMarkerTravelsToOtherInstancesInACookie() throws Exception {
+        ReadReplicaRoutingDataSource writer = routing(List.of(replicaA), 60_000);
+        authenticateAs("user-1");
+
+        MockHttpServletRequest writeRequest = new MockHttpServletRequest();
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(writeRequest, writeResponse));
+        inTransaction(false);
+        writer.getConnection();
+        commit();
+
+        Cookie cookie = writeResponse.getCookie(RecentWriteTracker.COOKIE_NAME);
+        assertNotNull(cookie);
+
+        // Otra instancia no vio la escritura, pero la cookie manda la lectura al primario
+        RecentWriteTracker otherInstance = new RecentWriteTracker(60_000);
+        MockHttpServletRequest readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(cookie);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(readRequest, new MockHttpServletResponse()));
+        assertTrue(otherInstance.wroteRecently("user-1"));
+
+        readRequest.setCookies(new Cookie(RecentWriteTracker.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 120_000)));
+        assertFalse(otherInstance.wroteRecently("user-1"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "replica.it", matches = "true")
+    void routesAgainstTwoPostgresSchemas() {
+        String url = System.getProperty("replica.it.url", "jdbc:postgresql://localhost:5432/postgres");
+        String username = System.getProperty("replica.it.username", "postgres");
+        String password = System.getProperty("replica.it.password", "postgres");
+
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        for (String schema : List.of("routing_primary", "routing_replica")) {
+            admin.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            admin.execute("CREATE TABLE IF NOT EXISTS " + schema + ".routing_marker (name TEXT)");
+            admin.execute("TRUNCATE " + schema + ".routing_marker");
+            admin.update("INSERT INTO " + schema + ".routing_marker (name) VALUES (?)", schema);
+        }
+
+        DataSource primaryDs = new DriverManagerDataSource(url + schemaParam(url, "routing_primary"), username, password);
+        DataSource replicaDs = new DriverManagerDataSource(url + schemaParam(url, "routing_replica"), username, password);
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primaryDs, List.of(replicaDs), new RecentWriteTracker(60_000));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+
+        String marker = "SELECT name FROM routing_marker";
+        assertEquals("routing_replica", readOnly.execute(s -> jdbc.queryForObject(marker, String.class)));
+        assertEquals("routing_primary", readWrite.execute(s -> jdbc.queryForObject(marker, String.class)));
+
+        authenticateAs("writer");
+        readWrite.executeWithoutResult(s -> jdbc.update("UPDATE routing_marker SET name = name"));
+        assertEquals("routing_primary", readOnly.execute(s -> jdbc.queryForObject(marker, String.class)));
+    }
+
+    private ReadReplicaRoutingDataSource routing(List<DataSource> replicas, long readYourWritesMs) throws Exception {
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replicaA.getConnection()).thenReturn(mock(Connection.class));
+        when(replicaB.getConnection()).thenReturn(mock(Connection.class));
+
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primary, replicas, new RecentWriteTracker(readYourWritesMs));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static void authenticateAs(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userId, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static String schemaParam(String url, String schema) {
+        return (url.contains("?") ? "&" : "?") + "currentSchema=" + schema;
+    }
+}
@@ -0,0 +1,82 @@
+package com.near.api.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de autenticar una petición con JWT:
+ *  - legacyDoubleParse: flujo anterior (validateToken + getUserIdFromToken, parser nuevo en cada llamada)
+ *  - verifyUncached: verify() con el cache deshabilitado (un solo parseo)
+ *  - verifyCached: verify() con el token ya en el cache
+ *
+ * Ejecutar con:
+ *   mvn test -Dtest=JwtAuthBenchmark -Dbenchmark=true
+ *   (opcionales: -Dbenchmark.forks=1 -Dbenchmark.iterations=5)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private SecretKey secretKey;
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncachedProvider = new JwtTokenProvider(SECRET, 86400000L, 0);
+        cachedProvider = new JwtTokenProvider(SECRET, 86400000L, 10000);
+        token = cachedProvider.generateAccessToken(UUID.randomUUID(), "bench@near.app", false);
+        cachedProvider.verify(token);
+    }
+
+    @Benchmark
+    public UUID legacyDoubleParse() {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        return UUID.fromString(claims.getSubject());
+    }
+
+    @Benchmark
+    public UUID verifyUncached() {
+        return uncachedProvider.verify(token).orElseThrow().getUserId();
+    }
+
+    @Benchmark
+    public UUID verifyCached() {
+        return cachedProvider.verify(token).orElseThrow().getUserId();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        Options options = new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .forks(Integer.getInteger("benchmark.forks", 1))
+                .warmupIterations(iterations)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(iterations)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        new Runner(options).run();
+    }
+}
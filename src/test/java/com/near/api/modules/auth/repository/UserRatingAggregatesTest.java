@@ -0,0 +1,183 @@
+package com.near.api.modules.auth.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL de los agregados de calificación contra PostgreSQL: los UPDATE incrementales de
+ * UserRepository (se leen de sus @Query) y el backfill de db/user_rating_aggregates.sql
+ * deben dejar los mismos valores. Usa un schema propio en una base local:
+ *   mvn test -Dtest=UserRatingAggregatesTest -Drating.it=true
+ *   (opcionales: -Drating.it.url=jdbc:postgresql://localhost:5432/postgres
+ *    -Drating.it.username=postgres -Drating.it.password=postgres)
+ */
+@EnabledIfSystemProperty(named = "rating.it", matches = "true")
+class UserRatingAggregatesTest {
+
+    private static final String SCHEMA = "rating_aggregates_it";
+
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate namedJdbc;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        String url = System.getProperty("rating.it.url", "jdbc:postgresql://localhost:5432/postgres");
+        String username = System.getProperty("rating.it.username", "postgres");
+        String password = System.getProperty("rating.it.password", "postgres");
+
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        admin.execute("CREATE SCHEMA " + SCHEMA);
+
+        dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA, username, password);
+        jdbc = new JdbcTemplate(dataSource);
+        namedJdbc = new NamedParameterJdbcTemplate(dataSource);
+
+        // Solo las columnas que tocan las sentencias; las de agregados las agrega el script
+        jdbc.execute("""
+            CREATE TABLE users (
+                id UUID PRIMARY KEY,
+                reputation_stars NUMERIC(3,2) DEFAULT 0,
+                total_ratings_received INTEGER DEFAULT 0,
+                updated_at TIMESTAMPTZ
+            )""");
+        jdbc.execute("""
+            CREATE TABLE requests (
+                id BIGSERIAL PRIMARY KEY,
+                requester_id UUID NOT NULL,
+                responder_id UUID,
+                requester_rating NUMERIC(2,1),
+                responder_rating NUMERIC(2,1)
+            )""");
+        runAggregatesScript();
+    }
+
+    @Test
+    void incrementalUpdatesKeepCombinedAverage() {
+        UUID userId = insertUser();
+
+        assertEquals(1, addRating("addRatingAsResponder", userId, "5.0"));
+        assertEquals(1, addRating("addRatingAsRequester", userId, "4.0"));
+        assertEquals(1, addRating("addRatingAsResponder", userId, "3.5"));
+
+        Map<String, Object> row = userRow(userId);
+        assertEquals(0, new BigDecimal("8.50").compareTo((BigDecimal) row.get("rating_sum_as_responder")));
+        assertEquals(2, row.get("rating_count_as_responder"));
+        assertEquals(0, new BigDecimal("4.00").compareTo((BigDecimal) row.get("rating_sum_as_requester")));
+        assertEquals(1, row.get("rating_count_as_requester"));
+        assertEquals(3, row.get("total_ratings_received"));
+        // (5.0 + 4.0 + 3.5) / 3 = 4.1666...
+        assertEquals(0, new BigDecimal("4.17").compareTo((BigDecimal) row.get("reputation_stars")));
+        assertNotNull(row.get("updated_at"));
+    }
+
+    @Test
+    void unknownUserUpdatesNothing() {
+        assertEquals(0, addRating("addRatingAsResponder", UUID.randomUUID(), "5.0"));
+        assertEquals(0, addRating("addRatingAsRequester", UUID.randomUUID(), "5.0"));
+    }
+
+    @Test
+    void backfillMatchesIncrementalUpdates() {
+        UUID requester = insertUser();
+        UUID responder = insertUser();
+        UUID unrated = insertUser();
+
+        // Cada calificación queda en requests y se aplica también de forma incremental
+        rate(requester, responder, "4.5", "5.0");
+        rate(requester, responder, null, "3.0");
+        rate(responder, requester, "2.5", "4.0");
+        rate(requester, unrated, null, null);
+
+        Map<String, Object> requesterIncremental = aggregates(requester);
+        Map<String, Object> responderIncremental = aggregates(responder);
+
+        jdbc.update("""
+            UPDATE users SET rating_sum_as_responder = 0, rating_count_as_responder = 0,
+                             rating_sum_as_requester = 0, rating_count_as_requester = 0""");
+        runAggregatesScript();
+
+        assertAggregatesEqual(requesterIncremental, aggregates(requester));
+        assertAggregatesEqual(responderIncremental, aggregates(responder));
+        assertEquals(0, aggregates(unrated).get("rating_count_as_responder"));
+        assertEquals(0, aggregates(unrated).get("rating_count_as_requester"));
+    }
+
+    private void rate(UUID requesterId, UUID responderId, String requesterRating, String responderRating) {
+        jdbc.update("INSERT INTO requests (requester_id, responder_id, requester_rating, responder_rating) VALUES (?, ?, ?, ?)",
+                requesterId, responderId,
+                requesterRating != null ? new BigDecimal(requesterRating) : null,
+                responderRating != null ? new BigDecimal(responderRating) : null);
+        if (requesterRating != null) {
+            addRating("addRatingAsRequester", requesterId, requesterRating);
+        }
+        if (responderRating != null) {
+            addRating("addRatingAsResponder", responderId, responderRating);
+        }
+    }
+
+    private int addRating(String method, UUID userId, String rating) {
+        return namedJdbc.update(repositorySql(method), new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("rating", new BigDecimal(rating)));
+    }
+
+    private static String repositorySql(String method) {
+        try {
+            return UserRepository.class.getMethod(method, UUID.class, BigDecimal.class)
+                    .getAnnotation(Query.class)
+                    .value();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void runAggregatesScript() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/user_rating_aggregates.sql")).execute(dataSource);
+    }
+
+    private UUID insertUser() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO users (id) VALUES (?)", id);
+        return id;
+    }
+
+    private Map<String, Object> userRow(UUID userId) {
+        return jdbc.queryForMap("SELECT * FROM users WHERE id = ?", userId);
+    }
+
+    private Map<String, Object> aggregates(UUID userId) {
+        return jdbc.queryForMap("""
+            SELECT rating_sum_as_responder, rating_count_as_responder,
+                   rating_sum_as_requester, rating_count_as_requester
+            FROM users WHERE id = ?""", userId);
+    }
+
+    private static void assertAggregatesEqual(Map<String, Object> expected, Map<String, Object> actual) {
+        for (String column : expected.keySet()) {
+            Object value = expected.get(column);
+            if (value instanceof BigDecimal decimal) {
+                assertEquals(0, decimal.compareTo((BigDecimal) actual.get(column)), column);
+            } else {
+                assertEquals(value, actual.get(column), column);
+            }
+        }
+    }
+}
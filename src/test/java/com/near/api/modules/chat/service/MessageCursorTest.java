@@ -0,0 +1,68 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Message;
+import com.near.api.shared.exception.BadRequestException;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cursor de mensajes: ida y vuelta sin perder la clave (createdAt, _id) del último
+ * mensaje de la página, que es el límite exclusivo de la siguiente consulta.
+ */
+class MessageCursorTest {
+
+    @Test
+    void roundTripKeepsTheKeysetOfTheLastMessage() {
+        ObjectId id = new ObjectId();
+        Instant createdAt = Instant.parse("2026-03-01T12:00:00.123Z");
+        Message message = Message.builder().id(id.toHexString()).createdAt(createdAt).build();
+
+        MessageCursor decoded = MessageCursor.decode(MessageCursor.of(message).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void messagesInTheSameMillisecondStayDistinguishableById() {
+        Instant createdAt = Instant.parse("2026-03-01T12:00:00.123Z");
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+
+        MessageCursor a = MessageCursor.decode(new MessageCursor(createdAt, first).encode());
+        MessageCursor b = MessageCursor.decode(new MessageCursor(createdAt, second).encode());
+
+        assertEquals(a.getCreatedAt(), b.getCreatedAt());
+        assertNotEquals(a.getId(), b.getId());
+    }
+
+    @Test
+    void messageWithoutCreatedAtFallsBackToObjectIdDate() {
+        ObjectId id = new ObjectId(Date.from(Instant.parse("2025-01-01T00:00:00Z")));
+        Message message = Message.builder().id(id.toHexString()).build();
+
+        MessageCursor cursor = MessageCursor.of(message);
+
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), cursor.getCreatedAt());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        for (String cursor : List.of("", "no-es-base64!", encode("sin-separador"), encode("abc:" + new ObjectId()),
+                encode("1700000000000:no-es-objectid"))) {
+            assertThrows(BadRequestException.class, () -> MessageCursor.decode(cursor), cursor);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package com.near.api.modules.chat.service;
+
+import com.near.api.modules.chat.document.Conversation;
+import com.near.api.modules.chat.repository.ConversationRepository;
+import com.near.api.modules.chat.repository.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Persistencia de marcas de agua de lectura: compare-and-set sobre la marca guardada
+ * y no leídos descontados como delta, sin pisar los $inc de mensajes nuevos.
+ */
+class ReadReceiptAggregatorTest {
+
+    private static final String CONVERSATION_ID = "65f0c0ffee0000000000abcd";
+
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final InboxService inboxService = mock(InboxService.class);
+    private final ReadReceiptAggregator aggregator = new ReadReceiptAggregator(
+            conversationRepository, messageRepository, messagingTemplate, inboxService);
+
+    private final UUID userId = UUID.randomUUID();
+    private final Instant stored = Instant.parse("2026-03-01T12:00:00Z");
+    private final Instant readUpTo = Instant.parse("2026-03-01T12:05:00Z");
+
+    @Test
+    void advancingWatermarkSubtractsOnlyMessagesReadInBetween() {
+        storedWatermark(stored);
+        when(messageRepository.countReceivedBetween(CONVERSATION_ID, userId, stored, readUpTo)).thenReturn(3L);
+        when(conversationRepository.advanceReadUpTo(CONVERSATION_ID, userId, stored, readUpTo, -3)).thenReturn(1L);
+
+        aggregator.record(CONVERSATION_ID, userId, readUpTo);
+        aggregator.flush();
+
+        verify(conversationRepository).advanceReadUpTo(CONVERSATION_ID, userId, stored, readUpTo, -3);
+        verify(inboxService).onRead(CONVERSATION_ID, userId, 3);
+        verify(messagingTemplate).convertAndSend(eq("/topic/chat/" + CONVERSATION_ID + "/read"), any(Object.class));
+    }
+
+    @Test
+    void firstReadCountsFromTheStart() {
+        storedWatermark(null);
+        when(messageRepository.countReceivedBetween(CONVERSATION_ID, userId, Instant.EPOCH, readUpTo)).thenReturn(2L);
+        when(conversationRepository.advanceReadUpTo(CONVERSATION_ID, userId, null, readUpTo, -2)).thenReturn(1L);
+
+        aggregator.record(CONVERSATION_ID, userId, readUpTo);
+        aggregator.flush();
+
+        verify(inboxService).onRead(CONVERSATION_ID, userId, 2);
+    }
+
+    @Test
+    void olderWatermarkFlushedLateChangesNothing() {
+        storedWatermark(readUpTo);
+
+        aggregator.record(CONVERSATION_ID, userId, stored);
+        aggregator.flush();
+
+        verify(conversationRepository, never()).advanceReadUpTo(any(), any(), any(), any(), anyInt());
+        verifyNoInteractions(messageRepository, inboxService, messagingTemplate);
+    }
+
+    @Test
+    void concurrentAdvanceIsRetriedFromTheNewWatermark() {
+        Instant concurrent = Instant.parse("2026-03-01T12:02:00Z");
+        when(conversationRepository.findReadWatermarks(CONVERSATION_ID))
+                .thenReturn(Optional.of(conversation(stored)), Optional.of(conversation(concurrent)));
+        when(messageRepository.countReceivedBetween(CONVERSATION_ID, userId, stored, readUpTo)).thenReturn(5L);
+        when(messageRepository.countReceivedBetween(CONVERSATION_ID, userId, concurrent, readUpTo)).thenReturn(2L);
+        when(conversationRepository.advanceReadUpTo(CONVERSATION_ID, userId, stored, readUpTo, -5)).thenReturn(0L);
+        when(conversationRepository.advanceReadUpTo(CONVERSATION_ID, userId, concurrent, readUpTo, -2)).thenReturn(1L);
+
+        aggregator.record(CONVERSATION_ID, userId, readUpTo);
+        aggregator.flush();
+
+        verify(inboxService).onRead(CONVERSATION_ID, userId, 2);
+        verify(inboxService, never()).onRead(CONVERSATION_ID, userId, 5);
+    }
+
+    private void storedWatermark(Instant lastReadAt) {
+        when(conversationRepository.findReadWatermarks(CONVERSATION_ID)).thenReturn(Optional.of(conversation(lastReadAt)));
+    }
+
+    private Conversation conversation(Instant lastReadAt) {
+        return Conversation.builder()
+                .id(CONVERSATION_ID)
+                .participants(List.of(
+                        Conversation.Participant.builder().userId(UUID.randomUUID()).build(),
+                        Conversation.Participant.builder().userId(userId).lastReadAt(lastReadAt).build()))
+                .build();
+    }
+}
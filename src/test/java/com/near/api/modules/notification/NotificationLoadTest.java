@@ -0,0 +1,244 @@
+package com.near.api.modules.notification;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.near.api.modules.auth.repository.UserRepository;
+import com.near.api.modules.notification.dto.FcmTokenTarget;
+import com.near.api.modules.notification.dto.NearbyCandidate;
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.repository.FcmTokenRepository;
+import com.near.api.modules.notification.service.NotificationDispatcher;
+import com.near.api.modules.notification.service.NotificationJobService;
+import com.near.api.modules.notification.service.NotificationServiceImpl;
+import com.near.api.modules.notification.service.NotificationTargetingServiceImpl;
+import com.near.api.modules.notification.transport.FakePushTransport;
+import com.near.api.modules.notification.transport.PushBatchResult;
+import com.near.api.modules.notification.transport.PushPlatform;
+import com.near.api.modules.notification.transport.PushTransport;
+import com.near.api.modules.notification.transport.PushTransportException;
+import com.near.api.modules.request.entity.Request.RequestStatus;
+import com.near.api.modules.request.repository.RequestRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba de carga del fan-out de NEARBY_REQUEST contra el FCM simulado.
+ * No levanta el contexto de Spring: los repositorios son mocks y el envío pasa
+ * por el mismo NotificationDispatcher que en producción.
+ *
+ * Ejecutar con:
+ *   mvn test -Dtest=NotificationLoadTest -Dloadtest=true
+ *   (opcionales: -Dloadtest.requests=20 -Dloadtest.users=2500 -Dloadtest.tokensPerUser=2
+ *    -Dloadtest.threads=10 -Dloadtest.latencyMs=50 -Dloadtest.failureRate=0.01)
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class NotificationLoadTest {
+
+    private final int requests = Integer.getInteger("loadtest.requests", 20);
+    private final int usersPerRequest = Integer.getInteger("loadtest.users", 2500);
+    private final int tokensPerUser = Integer.getInteger("loadtest.tokensPerUser", 2);
+    private final int threads = Integer.getInteger("loadtest.threads", 10);
+    private final long latencyMs = Long.getLong("loadtest.latencyMs", 50L);
+    private final double failureRate = Double.parseDouble(System.getProperty("loadtest.failureRate", "0.01"));
+
+    @Test
+    void nearbyRequestFanOut() throws Exception {
+        FcmTokenRepository fcmTokenRepository = mock(FcmTokenRepository.class);
+        RequestRepository requestRepository = mock(RequestRepository.class);
+        NotificationJobService notificationJobService = mock(NotificationJobService.class);
+
+        List<NearbyCandidate> candidates = buildCandidates(usersPerRequest);
+        when(fcmTokenRepository.findNearbyCandidates(anyDouble(), anyDouble(), anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(candidates);
+        when(fcmTokenRepository.findActiveTargetsByUserIds(anyList()))
+                .thenAnswer(invocation -> targetsFor(invocation.getArgument(0)));
+        when(requestRepository.findStatusById(any())).thenReturn(Optional.of(RequestStatus.PENDING));
+
+        FakePushTransport fakeTransport = new FakePushTransport(latencyMs, latencyMs / 2, failureRate,
+                List.of(MessagingErrorCode.UNAVAILABLE, MessagingErrorCode.UNREGISTERED), 0.0);
+        TimedTransport transport = new TimedTransport(fakeTransport);
+
+        NotificationTargetingServiceImpl targetingService = new NotificationTargetingServiceImpl(
+                fcmTokenRepository, requestRepository, mock(TaskScheduler.class), Runnable::run);
+        ReflectionTestUtils.setField(targetingService, "maxNearbyUsers", usersPerRequest);
+        ReflectionTestUtils.setField(targetingService, "waveSize", usersPerRequest);
+        ReflectionTestUtils.setField(targetingService, "maxWaves", 1);
+        ReflectionTestUtils.setField(targetingService, "waveDelaySeconds", 60L);
+
+        NotificationServiceImpl notificationService = new NotificationServiceImpl(
+                fcmTokenRepository,
+                mock(UserRepository.class),
+                new NotificationDispatcher(transport, fcmTokenRepository),
+                notificationJobService,
+                targetingService
+        );
+
+        // Un hilo por request, como el pool de notificaciones
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Long> requestLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                long t0 = System.nanoTime();
+                notificationService.notifyNearbyUsers(UUID.randomUUID(), UUID.randomUUID(),
+                        -12.0464, -77.0428, 5000, "Plaza San Martín", 10, 30,
+                        "¿Hay mucha gente?", "ALL");
+                requestLatencies.add(System.nanoTime() - t0);
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        long expectedTokens = (long) requests * usersPerRequest * tokensPerUser;
+        long processed = fakeTransport.getSentCount() + fakeTransport.getFailedCount();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        System.out.printf("%n=== Prueba de carga NEARBY_REQUEST ===%n");
+        System.out.printf("Requests: %d | usuarios/request: %d | tokens: %d | hilos: %d%n",
+                requests, usersPerRequest, expectedTokens, threads);
+        System.out.printf("Tiempo total: %.2fs | pushes/s: %.0f%n", seconds, processed / seconds);
+        System.out.printf("Exitosos: %d | fallidos: %d%n", fakeTransport.getSentCount(), fakeTransport.getFailedCount());
+        System.out.printf("Latencia por lote (ms): p50=%.1f p99=%.1f max=%.1f (%d lotes)%n",
+                percentile(transport.latencies, 50), percentile(transport.latencies, 99),
+                percentile(transport.latencies, 100), transport.latencies.size());
+        System.out.printf("Latencia por request (ms): p50=%.1f p99=%.1f max=%.1f%n",
+                percentile(requestLatencies, 50), percentile(requestLatencies, 99),
+                percentile(requestLatencies, 100));
+
+        assertEquals(expectedTokens, processed);
+        if (failureRate > 0) {
+            verify(fcmTokenRepository, atLeastOnce()).deactivateTokens(anyList());
+            verify(notificationJobService, atLeastOnce()).enqueue(anyList(), any(), any());
+        }
+    }
+
+    private List<NearbyCandidate> buildCandidates(int count) {
+        Random random = new Random(42);
+        List<NearbyCandidate> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            candidates.add(new Candidate(
+                    UUID.randomUUID(),
+                    random.nextDouble() * 5000,
+                    random.nextDouble() * 1800,
+                    random.nextDouble() * 5,
+                    (long) random.nextInt(20),
+                    (long) random.nextInt(60)));
+        }
+        candidates.sort(Comparator.comparingDouble(NearbyCandidate::getDistanceMeters));
+        return candidates;
+    }
+
+    // Tokens repartidos entre Android e iOS
+    private List<FcmTokenTarget> targetsFor(List<UUID> userIds) {
+        List<FcmTokenTarget> targets = new ArrayList<>(userIds.size() * tokensPerUser);
+        for (UUID userId : userIds) {
+            for (int t = 0; t < tokensPerUser; t++) {
+                targets.add(new Target("token-" + userId + "-" + t, t % 2 == 0 ? "android" : "ios"));
+            }
+        }
+        return targets;
+    }
+
+    private static double percentile(List<Long> nanos, int percentile) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted;
+        synchronized (nanos) {
+            sorted = new ArrayList<>(nanos);
+        }
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1_000_000.0;
+    }
+
+    /**
+     * Decorador que mide la latencia de cada lote enviado al transporte
+     */
+    private static class TimedTransport implements PushTransport {
+
+        private final PushTransport delegate;
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        TimedTransport(PushTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return delegate.isAvailable();
+        }
+
+        @Override
+        public PushBatchResult sendMulticast(List<String> tokens, PushPlatform platform,
+                                             NotificationData notification) throws PushTransportException {
+            long t0 = System.nanoTime();
+            try {
+                return delegate.sendMulticast(tokens, platform, notification);
+            } finally {
+                latencies.add(System.nanoTime() - t0);
+            }
+        }
+    }
+
+    private record Target(String token, String deviceType) implements FcmTokenTarget {
+
+        @Override
+        public String getToken() {
+            return token;
+        }
+
+        @Override
+        public String getDeviceType() {
+            return deviceType;
+        }
+    }
+
+    private record Candidate(UUID userId, Double distanceMeters, Double secondsSinceUpdate,
+                             Double reputationStars, Long acceptedCount, Long viewedCount)
+            implements NearbyCandidate {
+
+        @Override
+        public UUID getUserId() {
+            return userId;
+        }
+
+        @Override
+        public Double getDistanceMeters() {
+            return distanceMeters;
+        }
+
+        @Override
+        public Double getSecondsSinceUpdate() {
+            return secondsSinceUpdate;
+        }
+
+        @Override
+        public Double getReputationStars() {
+            return reputationStars;
+        }
+
+        @Override
+        public Long getAcceptedCount() {
+            return acceptedCount;
+        }
+
+        @Override
+        public Long getViewedCount() {
+            return viewedCount;
+        }
+    }
+}
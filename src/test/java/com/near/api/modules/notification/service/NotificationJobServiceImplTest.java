@@ -0,0 +1,218 @@
+package com.near.api.modules.notification.service;
+
+import com.near.api.modules.notification.dto.NotificationData;
+import com.near.api.modules.notification.dto.NotificationData.NotificationType;
+import com.near.api.modules.notification.entity.NotificationJob;
+import com.near.api.modules.notification.entity.NotificationJob.JobStatus;
+import com.near.api.modules.notification.repository.NotificationJobRepository;
+import com.near.api.modules.notification.service.NotificationDispatcher.DispatchResult;
+import com.near.api.shared.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Transiciones de la cola de reintentos: backoff exponencial con jitter,
+ * dead-letter por intentos agotados o error permanente y re-encolado manual.
+ */
+class NotificationJobServiceImplTest {
+
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationJobRepository repository = mock(NotificationJobRepository.class);
+    private final NotificationDispatcher dispatcher = mock(NotificationDispatcher.class);
+    private final NotificationJobServiceImpl service =
+            new NotificationJobServiceImpl(repository, dispatcher, mock(PlatformTransactionManager.class));
+
+    private final NotificationData notification = NotificationData.builder()
+            .type(NotificationType.REQUEST_ACCEPTED)
+            .title("Título")
+            .body("Cuerpo")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "baseBackoffSeconds", BASE_BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(service, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 120L);
+
+        when(dispatcher.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    void enqueueCountsImmediateSendAsFirstAttempt() {
+        OffsetDateTime before = OffsetDateTime.now();
+
+        service.enqueue(List.of("t1", "t2"), notification, "UNAVAILABLE");
+
+        NotificationJob job = savedJob();
+        assertEquals(JobStatus.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals(MAX_ATTEMPTS, job.getMaxAttempts());
+        assertBackoff(before, job.getNextAttemptAt(), BASE_BACKOFF_SECONDS);
+    }
+
+    @Test
+    void deadLetterSkipsRetries() {
+        service.deadLetter(List.of("t1"), notification, "INVALID_ARGUMENT");
+
+        assertEquals(JobStatus.DEAD_LETTER, savedJob().getStatus());
+    }
+
+    @Test
+    void retryableFailureBacksOffExponentiallyAndKeepsOnlyFailingTokens() {
+        NotificationJob job = pendingJob(1, "t1", "t2");
+        claim(job);
+        when(dispatcher.dispatch(anyList(), any()))
+                .thenReturn(new DispatchResult(1, List.of("t2"), List.of(), "UNAVAILABLE"));
+        OffsetDateTime before = OffsetDateTime.now();
+
+        service.processDueJobs();
+
+        assertEquals(JobStatus.PENDING, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals(List.of("t2"), job.getTokens());
+        assertNull(job.getLockedUntil());
+        assertBackoff(before, job.getNextAttemptAt(), BASE_BACKOFF_SECONDS * 2);
+    }
+
+    @Test
+    void retryableFailureOnLastAttemptGoesToDeadLetter() {
+        NotificationJob job = pendingJob(MAX_ATTEMPTS - 1, "t1");
+        claim(job);
+        when(dispatcher.dispatch(anyList(), any()))
+                .thenReturn(new DispatchResult(0, List.of("t1"), List.of(), "UNAVAILABLE"));
+
+        service.processDueJobs();
+
+        assertEquals(JobStatus.DEAD_LETTER, job.getStatus());
+        assertEquals(MAX_ATTEMPTS, job.getAttempts());
+        assertEquals("UNAVAILABLE", job.getLastError());
+    }
+
+    @Test
+    void permanentFailureGoesToDeadLetterWithoutExhaustingAttempts() {
+        NotificationJob job = pendingJob(1, "t1", "t2");
+        claim(job);
+        when(dispatcher.dispatch(anyList(), any()))
+                .thenReturn(new DispatchResult(0, List.of("t1"), List.of("t2"), "INVALID_ARGUMENT"));
+
+        service.processDueJobs();
+
+        assertEquals(JobStatus.DEAD_LETTER, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals(List.of("t1", "t2"), job.getTokens());
+    }
+
+    @Test
+    void successfulRetryDeletesTheJob() {
+        NotificationJob job = pendingJob(1, "t1");
+        claim(job);
+        when(dispatcher.dispatch(anyList(), any()))
+                .thenReturn(new DispatchResult(1, List.of(), List.of(), null));
+
+        service.processDueJobs();
+
+        verify(repository).delete(job);
+        verify(repository, never()).save(job);
+    }
+
+    @Test
+    void attemptIsCountedAtClaimEvenIfProcessingThrows() {
+        NotificationJob job = pendingJob(1, "t1");
+        claim(job);
+        when(dispatcher.dispatch(anyList(), any())).thenThrow(new IllegalStateException("fallo inesperado"));
+
+        service.processDueJobs();
+
+        assertEquals(2, job.getAttempts());
+        assertEquals(JobStatus.PROCESSING, job.getStatus());
+        assertNotNull(job.getLockedUntil());
+        verify(repository).saveAll(List.of(job));
+    }
+
+    @Test
+    void expiredLeaseWithAttemptsExhaustedGoesToDeadLetterWithoutSending() {
+        NotificationJob job = pendingJob(MAX_ATTEMPTS, "t1");
+        job.setStatus(JobStatus.PROCESSING);
+        claim(job);
+
+        service.processDueJobs();
+
+        assertEquals(JobStatus.DEAD_LETTER, job.getStatus());
+        assertNull(job.getLockedUntil());
+        verify(dispatcher, never()).dispatch(anyList(), any());
+    }
+
+    @Test
+    void replayResetsDeadLetterJob() {
+        NotificationJob job = pendingJob(MAX_ATTEMPTS, "t1");
+        job.setStatus(JobStatus.DEAD_LETTER);
+        when(repository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(repository.save(job)).thenReturn(job);
+
+        service.replay(job.getId());
+
+        assertEquals(JobStatus.PENDING, job.getStatus());
+        assertEquals(0, job.getAttempts());
+    }
+
+    @Test
+    void replayRejectsJobsNotInDeadLetter() {
+        for (JobStatus status : List.of(JobStatus.PENDING, JobStatus.PROCESSING)) {
+            NotificationJob job = pendingJob(1, "t1");
+            job.setStatus(status);
+            when(repository.findById(job.getId())).thenReturn(Optional.of(job));
+
+            assertThrows(BadRequestException.class, () -> service.replay(job.getId()), status.name());
+        }
+        verify(repository, never()).save(any());
+    }
+
+    private NotificationJob pendingJob(int attempts, String... tokens) {
+        return NotificationJob.builder()
+                .id(UUID.randomUUID())
+                .notificationType(NotificationType.REQUEST_ACCEPTED)
+                .title("Título")
+                .body("Cuerpo")
+                .tokens(new ArrayList<>(List.of(tokens)))
+                .status(JobStatus.PENDING)
+                .attempts(attempts)
+                .maxAttempts(MAX_ATTEMPTS)
+                .nextAttemptAt(OffsetDateTime.now())
+                .build();
+    }
+
+    private void claim(NotificationJob job) {
+        when(repository.claimDueJobs(any(), anyInt())).thenReturn(List.of(job));
+    }
+
+    private NotificationJob savedJob() {
+        ArgumentCaptor<NotificationJob> captor = ArgumentCaptor.forClass(NotificationJob.class);
+        verify(repository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    // Backoff esperado con jitter de ±20%
+    private static void assertBackoff(OffsetDateTime before, OffsetDateTime nextAttemptAt, long expectedSeconds) {
+        long seconds = Duration.between(before, nextAttemptAt).getSeconds();
+        assertTrue(seconds >= (long) (expectedSeconds * 0.8) - 1 && seconds <= (long) (expectedSeconds * 1.2) + 1,
+                "backoff fuera de rango: " + seconds + "s");
+    }
+}
@@ -0,0 +1,73 @@
+package com.near.api.modules.request.service;
+
+import com.near.api.shared.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cursor del historial de requests: ida y vuelta sobre (createdAt, id) sin perder
+ * los microsegundos de created_at, que separan filas creadas en el mismo milisegundo.
+ */
+class RequestCursorTest {
+
+    @Test
+    void roundTripKeepsMicrosecondsAndId() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2026-03-01T12:00:00.123456Z");
+        UUID id = UUID.randomUUID();
+
+        RequestCursor decoded = RequestCursor.decode(new RequestCursor(createdAt, id).encode());
+
+        assertEquals(createdAt.toInstant(), decoded.getCreatedAt().toInstant());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void rowsInTheSameMillisecondKeepTheirOrder() {
+        OffsetDateTime earlier = OffsetDateTime.parse("2026-03-01T12:00:00.123100Z");
+        OffsetDateTime later = OffsetDateTime.parse("2026-03-01T12:00:00.123900Z");
+
+        OffsetDateTime decodedEarlier = RequestCursor.decode(new RequestCursor(earlier, UUID.randomUUID()).encode()).getCreatedAt();
+        OffsetDateTime decodedLater = RequestCursor.decode(new RequestCursor(later, UUID.randomUUID()).encode()).getCreatedAt();
+
+        assertTrue(decodedEarlier.isBefore(decodedLater));
+    }
+
+    @Test
+    void offsetIsNormalizedToUtcWithoutMovingTheInstant() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2026-03-01T09:00:00.000001-03:00");
+
+        RequestCursor decoded = RequestCursor.decode(new RequestCursor(createdAt, UUID.randomUUID()).encode());
+
+        assertEquals(ZoneOffset.UTC, decoded.getCreatedAt().getOffset());
+        assertEquals(createdAt.toInstant(), decoded.getCreatedAt().toInstant());
+    }
+
+    @Test
+    void timestampsBeforeEpochSurviveTheRoundTrip() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("1969-12-31T23:59:59.500000Z");
+
+        RequestCursor decoded = RequestCursor.decode(new RequestCursor(createdAt, UUID.randomUUID()).encode());
+
+        assertEquals(createdAt.toInstant(), decoded.getCreatedAt().toInstant());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        for (String cursor : List.of("", "no-es-base64!", encode("1700000000"), encode("1700000000:0"),
+                encode("x:0:" + UUID.randomUUID()), encode("1700000000:0:no-es-uuid"))) {
+            assertThrows(BadRequestException.class, () -> RequestCursor.decode(cursor), cursor);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,166 @@
+package com.near.api.modules.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Deduplicación en memoria y conteo de vistas: solo suman las filas que el
+ * INSERT ... ON CONFLICT DO NOTHING realmente insertó. La tabla se simula con un set.
+ */
+class RequestViewTrackerTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RequestViewTracker tracker =
+            new RequestViewTracker(jdbcTemplate, mock(PlatformTransactionManager.class));
+
+    // Filas (requestId:userId) ya presentes en request_views
+    private final Set<String> storedViews = new HashSet<>();
+
+    // Vistas enviadas en cada INSERT en lote
+    private final List<List<String>> insertBatches = new ArrayList<>();
+
+    private final UUID requestA = UUID.randomUUID();
+    private final UUID requestB = UUID.randomUUID();
+    private final UUID user1 = UUID.randomUUID();
+    private final UUID user2 = UUID.randomUUID();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "maxPending", 100);
+        ReflectionTestUtils.setField(tracker, "dedupSize", 100);
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Object> views = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    List<String> batch = new ArrayList<>();
+                    int[] results = new int[views.size()];
+                    int i = 0;
+                    for (Object view : views) {
+                        String key = keyOf(setter, view);
+                        batch.add(key);
+                        results[i++] = storedViews.add(key) ? 1 : 0;
+                    }
+                    insertBatches.add(batch);
+                    return new int[][]{results};
+                });
+    }
+
+    @Test
+    void repeatedViewsAreQueuedOnce() {
+        tracker.record(requestA, user1, null, 10.0, false);
+        tracker.record(requestA, user1, null, 10.0, false);
+        tracker.record(requestA, user2, null, 20.0, true);
+
+        tracker.flush();
+
+        assertEquals(1, insertBatches.size());
+        assertEquals(Set.of(key(requestA, user1), key(requestA, user2)), new HashSet<>(insertBatches.get(0)));
+    }
+
+    @Test
+    void viewCountOnlyIncludesInsertedRows() {
+        storedViews.add(key(requestA, user1));
+
+        tracker.record(requestA, user1, null, null, false);
+        tracker.record(requestA, user2, null, null, false);
+        tracker.record(requestB, user1, null, null, false);
+        tracker.flush();
+
+        assertEquals(Map.of(requestA, 1, requestB, 1), capturedIncrements());
+    }
+
+    @Test
+    void noIncrementWhenEveryViewAlreadyExists() {
+        storedViews.add(key(requestA, user1));
+
+        tracker.record(requestA, user1, null, null, false);
+        tracker.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void viewDroppedByFullBufferCanBeRecordedLater() {
+        ReflectionTestUtils.setField(tracker, "maxPending", 1);
+
+        tracker.record(requestA, user1, null, null, false);
+        tracker.record(requestA, user2, null, null, false); // buffer lleno: se descarta
+        tracker.flush();
+        tracker.record(requestA, user2, null, null, false);
+        tracker.flush();
+
+        assertEquals(List.of(List.of(key(requestA, user1)), List.of(key(requestA, user2))), insertBatches);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsViewsForTheNextOne() {
+        doThrow(new DataAccessResourceFailureException("db caída"))
+                .doAnswer(invocation -> new int[][]{{1}})
+                .when(jdbcTemplate)
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        tracker.record(requestA, user1, null, null, false);
+        tracker.flush();
+        tracker.record(requestA, user1, null, null, false); // sigue deduplicada mientras está pendiente
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(Map.of(requestA, 1), capturedIncrements());
+    }
+
+    @Test
+    void flushWithoutViewsDoesNotTouchTheDatabase() {
+        tracker.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, Integer> capturedIncrements() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        Map<UUID, Integer> increments = new HashMap<>();
+        for (Object[] row : captor.getValue()) {
+            increments.put((UUID) row[1], (Integer) row[0]);
+        }
+        return increments;
+    }
+
+    private static String keyOf(ParameterizedPreparedStatementSetter<Object> setter, Object view) throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.setValues(ps, view);
+        ArgumentCaptor<Object> requestId = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> userId = ArgumentCaptor.forClass(Object.class);
+        verify(ps).setObject(eq(2), requestId.capture());
+        verify(ps).setObject(eq(3), userId.capture());
+        return requestId.getValue() + ":" + userId.getValue();
+    }
+
+    private static String key(UUID requestId, UUID userId) {
+        return requestId + ":" + userId;
+    }
+}